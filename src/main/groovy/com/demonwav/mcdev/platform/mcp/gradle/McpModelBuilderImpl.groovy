@@ -27,8 +27,19 @@ final class McpModelBuilderImpl implements ModelBuilderService {
         def extension = project.extensions.findByName('minecraft')
         if (extension) {
             // TODO: Add more checks to verify if ForgeGradle is actually applied in the project
-            def mappingFiles = project.tasks.genSrgs.outputs.files.files.collect { it.absolutePath }
-            return new McpModelImpl(extension.version, extension.mappings, mappingFiles.toSet())
+            def genSrgs = project.tasks.genSrgs
+            def mappingFiles = genSrgs.outputs.files.files.collect { it.absolutePath }.toSet()
+
+            // The CSV files with the MCP names are inputs of genSrgs, params.csv is in the same directory
+            if (genSrgs.hasProperty('methodsCsv') && genSrgs.hasProperty('fieldsCsv')) {
+                def methodsCsv = project.file(genSrgs.methodsCsv)
+                def fieldsCsv = project.file(genSrgs.fieldsCsv)
+                def paramsCsv = new File(methodsCsv.parentFile, 'params.csv')
+
+                [methodsCsv, fieldsCsv, paramsCsv].findAll { it.exists() }.each { mappingFiles << it.absolutePath }
+            }
+
+            return new McpModelImpl(extension.version, extension.mappings, mappingFiles)
         }
 
         // ForgeGradle is not applied so we don't need the model
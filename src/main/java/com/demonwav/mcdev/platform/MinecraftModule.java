@@ -20,6 +20,7 @@ import com.demonwav.mcdev.util.Util;
 import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.intellij.ide.projectView.ProjectView;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.AccessToken;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.module.JavaModuleType;
@@ -27,6 +28,7 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.module.ModuleType;
 import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
@@ -254,7 +256,7 @@ public final class MinecraftModule {
     public void removeModuleType(@NotNull String moduleTypeName) {
         final AbstractModuleType<?> type = PlatformType.getByName(moduleTypeName);
         if (type != null && modules.containsKey(type)) {
-            modules.remove(type);
+            disposeModule(modules.remove(type));
         }
         ProjectView.getInstance(module.getProject()).refresh();
     }
@@ -266,7 +268,13 @@ public final class MinecraftModule {
      */
     public void updateModules(PlatformType[] types) {
         final List<PlatformType> platformTypes = Arrays.asList(types);
-        modules.keySet().removeIf(next -> !platformTypes.contains(next.getPlatformType()));
+        modules.entrySet().removeIf(entry -> {
+            if (!platformTypes.contains(entry.getKey().getPlatformType())) {
+                disposeModule(entry.getValue());
+                return true;
+            }
+            return false;
+        });
         for (PlatformType type : types) {
             if (!modules.keySet().contains(type.getType())) {
                 modules.put(type.getType(), type.getType().generateModule(module));
@@ -275,6 +283,12 @@ public final class MinecraftModule {
         ProjectView.getInstance(module.getProject()).refresh();
     }
 
+    private static void disposeModule(@Nullable AbstractModule module) {
+        if (module instanceof Disposable) {
+            Disposer.dispose((Disposable) module);
+        }
+    }
+
     @Contract(pure = true)
     public boolean isEventGenAvailable() {
         return modules.keySet().stream().anyMatch(AbstractModuleType::isEventGenAvailable);
@@ -14,29 +14,40 @@ import com.demonwav.mcdev.buildsystem.BuildSystem;
 import com.demonwav.mcdev.buildsystem.gradle.GradleBuildSystem;
 import com.demonwav.mcdev.platform.AbstractModule;
 import com.demonwav.mcdev.platform.PlatformType;
+import com.demonwav.mcdev.platform.mcp.at.AtFileNameIndex;
 import com.demonwav.mcdev.platform.mcp.srg.SrgManager;
 
-import com.google.common.collect.Sets;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.Set;
 
 import javax.swing.Icon;
 
-public class McpModule extends AbstractModule {
+public class McpModule extends AbstractModule implements Disposable {
 
     private final McpModuleSettings settings;
-    final Set<VirtualFile> accessTransformers = Sets.newHashSet();
-    private SrgManager srgManager = new SrgManager();
+    private final SrgManager srgManager = new SrgManager();
 
     public McpModule(@NotNull Module module) {
         super(module);
 
         this.settings = McpModuleSettings.getInstance(module);
+
+        // Release the shared SRG map once the module is removed
+        Disposer.register(module, this);
+        Disposer.register(this, srgManager);
         srgManager.parse(getSettings().getMappingFiles());
 
         this.buildSystem = BuildSystem.getInstance(module);
@@ -83,11 +94,24 @@ public class McpModule extends AbstractModule {
         srgManager.parse(data.getMappingFiles());
     }
 
+    /**
+     * Get the access transformer files declared by this module, either by a coremod or the manifest. The files are
+     * looked up in the index again after the sources or the files of the project have changed.
+     */
+    @NotNull
     public Set<VirtualFile> getAccessTransformers() {
-        return accessTransformers;
+        if (DumbService.isDumb(project)) {
+            return Collections.emptySet();
+        }
+
+        return CachedValuesManager.getManager(project).getCachedValue(module, () -> CachedValueProvider.Result.create(
+            Collections.unmodifiableSet(AtFileNameIndex.findAccessTransformers(module)),
+            PsiModificationTracker.MODIFICATION_COUNT, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
+        ));
     }
 
-    public void addAccessTransformerFile(@NotNull VirtualFile file) {
-        accessTransformers.add(file);
+    @Override
+    public void dispose() {
+        // Only the parent of the SrgManager, which is disposed with the module or when the MCP platform is removed
     }
 }
@@ -10,39 +10,40 @@
 
 package com.demonwav.mcdev.platform.mcp;
 
-import com.demonwav.mcdev.buildsystem.SourceType;
 import com.demonwav.mcdev.platform.MinecraftModule;
 import com.demonwav.mcdev.platform.mcp.at.AtFileType;
 import com.demonwav.mcdev.util.Util;
 
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.AbstractProjectComponent;
-import com.intellij.openapi.fileTypes.FileNameMatcher;
+import com.intellij.openapi.fileTypes.ExactFileNameMatcher;
 import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.module.Module;
-import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.startup.StartupManager;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.JavaPsiFacade;
-import com.intellij.psi.JavaRecursiveElementWalkingVisitor;
-import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiExpression;
-import com.intellij.psi.PsiMethodCallExpression;
-import com.intellij.psi.impl.source.tree.java.PsiLiteralExpressionImpl;
-import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.searches.ClassInheritorsSearch;
-import com.intellij.util.Query;
-import org.jetbrains.annotations.NonNls;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.util.Alarm;
+import com.intellij.util.messages.MessageBusConnection;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class McpProjectComponent extends AbstractProjectComponent {
-    private static final String ACCESS_TRANSFORMER_CLASS =
-        "net.minecraftforge.fml.common.asm.transformers.AccessTransformer";
+    private static final int UPDATE_DELAY = 500;
+
+    private final Alarm updateAlarm;
 
     protected McpProjectComponent(Project project) {
         super(project);
+        this.updateAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, project);
     }
 
     @Override
@@ -54,102 +55,82 @@ public class McpProjectComponent extends AbstractProjectComponent {
         // We do this here so any other .cfg files don't get marked if they aren't in MCP projects
         Util.runWriteTask(() -> FileTypeManager.getInstance().associatePattern(AtFileType.getInstance(), "*_at.cfg"));
 
-//        MinecraftModule.doWhenReady(instance -> {
-//            if (myProject.isDisposed()) {
-//                return;
-//            }
-//
-//            final McpModule mcpModule = instance.getModuleOfType(McpModuleType.getInstance());
-//            if (mcpModule == null) {
-//                return;
-//            }
-//
-//            ApplicationManager.getApplication().runReadAction(() -> {
-//                final String[] fileNames = PsiShortNamesCache.getInstance(myProject).getAllFileNames();
-//                for (final String fileName : fileNames) {
-//                    if (!fileName.endsWith(".cfg")) {
-//                        continue;
-//                    }
-//
-//                    final PsiFile[] filesByName = PsiShortNamesCache.getInstance(myProject).getFilesByName(fileName);
-//                    for (final PsiFile psiFile : filesByName) {
-//                        mcpModule.addAccessTransformerFile(psiFile.getVirtualFile());
-//                    }
-//                }
-//            });
-//        });
-        
         StartupManager.getInstance(myProject).registerPostStartupActivity(() -> {
-            final PsiClass aClass = JavaPsiFacade.getInstance(myProject).findClass(ACCESS_TRANSFORMER_CLASS, GlobalSearchScope.allScope(myProject));
-            if (aClass == null) {
-                return;
-            }
-
-            final Query<PsiClass> search = ClassInheritorsSearch.search(aClass);
-            for (PsiClass psiClass : search) {
-                final Module module = ModuleUtilCore.findModuleForPsiElement(psiClass);
-                if (module == null) {
-                    continue;
-                }
-
-                final MinecraftModule instance = MinecraftModule.getInstance(module);
-                if (instance == null) {
-                    continue;
-                }
-
-                final McpModule mcpModule = instance.getModuleOfType(McpModuleType.getInstance());
-                if (mcpModule == null) {
-                    continue;
+            // The access transformer files are indexed, so they can be looked up again whenever the coremods or
+            // manifests change, instead of searching the whole project once
+            final MessageBusConnection connection = myProject.getMessageBus().connect();
+            connection.subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+                @Override
+                public void enterDumbMode() {}
+
+                @Override
+                public void exitDumbMode() {
+                    scheduleUpdate();
                 }
-
-                final JavaRecursiveElementWalkingVisitor visitor = new JavaRecursiveElementWalkingVisitor() {
-                    @Override
-                    public void visitMethodCallExpression(PsiMethodCallExpression expression) {
-                        if (!expression.getMethodExpression().getText().equals("super")) {
-                            return;
-                        }
-
-                        final PsiExpression[] expressions = expression.getArgumentList().getExpressions();
-                        if (expressions.length != 1) {
+            });
+            connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+                @Override
+                public void after(@NotNull List<? extends VFileEvent> events) {
+                    for (VFileEvent event : events) {
+                        final VirtualFile file = event.getFile();
+                        if (file == null || file.getFileType() == JavaFileType.INSTANCE || file.getName().equals("MANIFEST.MF")) {
+                            scheduleUpdate();
                             return;
                         }
+                    }
+                }
+            });
 
-                        final PsiExpression methodExpression = expressions[0];
-
-                        if (!(methodExpression instanceof PsiLiteralExpressionImpl)) {
-                            return;
-                        }
+            scheduleUpdate();
+        });
+    }
 
-                        final PsiLiteralExpressionImpl literalExpression = (PsiLiteralExpressionImpl) methodExpression;
+    private void scheduleUpdate() {
+        if (myProject.isDisposed()) {
+            return;
+        }
 
-                        final String text = literalExpression.getInnerText();
-                        if (text == null) {
-                            return;
-                        }
+        // Several changes usually happen at once, only update once they are done
+        updateAlarm.cancelAllRequests();
+        updateAlarm.addRequest(() -> DumbService.getInstance(myProject).runReadActionInSmartMode(this::updateFileTypes), UPDATE_DELAY);
+    }
 
-                        final Optional<VirtualFile> file = MinecraftModule.searchAllModulesForFile(text, SourceType.RESOURCE);
+    /**
+     * Associate all access transformer files which don't end with {@code _at.cfg} with the {@link AtFileType}.
+     */
+    private void updateFileTypes() {
+        if (myProject.isDisposed()) {
+            return;
+        }
+
+        final FileTypeManager fileTypeManager = FileTypeManager.getInstance();
+        final Set<String> names = new HashSet<>();
+        for (Module module : ModuleManager.getInstance(myProject).getModules()) {
+            final MinecraftModule instance = MinecraftModule.getInstance(module);
+            if (instance == null) {
+                continue;
+            }
 
-                        file.ifPresent(f -> Util.runWriteTask(() -> {
-                            mcpModule.addAccessTransformerFile(f);
-                            FileTypeManager.getInstance().associate(AtFileType.getInstance(), new FileNameMatcher() {
-                                @Override
-                                public boolean accept(@NonNls @NotNull String fileName) {
-                                    return fileName.equals(f.getName());
-                                }
+            final McpModule mcpModule = instance.getModuleOfType(McpModuleType.getInstance());
+            if (mcpModule == null) {
+                continue;
+            }
 
-                                @NotNull
-                                @Override
-                                public String getPresentableString() {
-                                    return "Access Transformers";
-                                }
+            for (VirtualFile file : mcpModule.getAccessTransformers()) {
+                if (file.getFileType() != AtFileType.getInstance()) {
+                    names.add(file.getName());
+                }
+            }
+        }
 
-                            });
+        if (names.isEmpty()) {
+            return;
+        }
 
-                        }));
-                    }
-                };
-                psiClass.accept(visitor);
+        ApplicationManager.getApplication().invokeLater(() -> ApplicationManager.getApplication().runWriteAction(() -> {
+            for (String name : names) {
+                fileTypeManager.associate(AtFileType.getInstance(), new ExactFileNameMatcher(name));
             }
-        });
+        }), myProject.getDisposed());
     }
 }
@@ -12,6 +12,8 @@ package com.demonwav.mcdev.platform.mcp.actions;
 
 import com.demonwav.mcdev.platform.mcp.McpModule;
 import com.demonwav.mcdev.platform.mcp.McpModuleType;
+import com.demonwav.mcdev.platform.mcp.at.AtEntryIndex;
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry;
 import com.demonwav.mcdev.platform.mcp.srg.SrgMap;
 import com.demonwav.mcdev.platform.mixin.util.MixinUtils;
 import com.demonwav.mcdev.platform.mixin.util.ShadowedMembers;
@@ -23,43 +25,44 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.DataKeys;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.popup.Balloon;
 import com.intellij.openapi.ui.popup.JBPopupFactory;
-import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.StatusBar;
 import com.intellij.openapi.wm.WindowManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiField;
-import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiIdentifier;
-import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiMethod;
-import com.intellij.psi.search.LocalSearchScope;
-import com.intellij.psi.search.PsiSearchHelper;
-import com.intellij.psi.search.UsageSearchContext;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.ui.LightColors;
 import com.intellij.ui.awt.RelativePoint;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
 
 public class GotoAtEntryAction extends AnAction {
     @Override
     public void actionPerformed(AnActionEvent e) {
+        // The event is only valid during this call, so get everything needed later now
+        final StatusBar statusBar = WindowManager.getInstance().getStatusBar(DataKeys.PROJECT.getData(e.getDataContext()));
+
         final ActionData data = McActionUtil.getDataFromActionEvent(e);
         if (data == null) {
-            showBalloon(e);
+            showBalloon(statusBar);
             return;
         }
 
         if (!(data.getElement() instanceof PsiIdentifier)) {
-            showBalloon(e);
+            showBalloon(statusBar);
             return;
         }
 
         final McpModule mcpModule = data.getInstance().getModuleOfType(McpModuleType.getInstance());
         if (mcpModule == null) {
-            showBalloon(e);
+            showBalloon(statusBar);
             return;
         }
 
@@ -78,11 +81,11 @@ public class GotoAtEntryAction extends AnAction {
 
                 final String fieldMcpToSrg = srgMap.findFieldMcpToSrg(s);
                 if (fieldMcpToSrg == null) {
-                    showBalloon(e);
+                    showBalloon(statusBar);
                     return;
                 }
 
-                searchForText(mcpModule, e, data, fieldMcpToSrg.substring(fieldMcpToSrg.lastIndexOf('/') + 1));
+                searchForEntry(statusBar, data, fieldMcpToSrg, null);
             } else if (parent instanceof PsiMethod) {
                 final PsiMethod method = (PsiMethod) parent;
 
@@ -90,47 +93,48 @@ public class GotoAtEntryAction extends AnAction {
 
                 final String methodMcpToSrg = srgMap.findMethodMcpToSrg(s);
                 if (methodMcpToSrg == null) {
-                    showBalloon(e);
+                    showBalloon(statusBar);
                     return;
                 }
 
-                final String beforeParen = methodMcpToSrg.substring(0, methodMcpToSrg.indexOf('('));
-                searchForText(mcpModule, e, data, beforeParen.substring(beforeParen.lastIndexOf('/') + 1));
+                // Prefer entries with the same descriptor, but fall back to any overload
+                searchForEntry(statusBar, data, methodMcpToSrg, methodMcpToSrg.substring(0, methodMcpToSrg.indexOf('(')));
             } else {
-                showBalloon(e);
+                showBalloon(statusBar);
             }
         });
     }
 
-    private void searchForText(@NotNull McpModule mcpModule, @NotNull AnActionEvent e, @NotNull ActionData data, @NotNull String text) {
-        for (VirtualFile virtualFile : mcpModule.getAccessTransformers()) {
-            final PsiFile file = PsiManager.getInstance(data.getProject()).findFile(virtualFile);
-            if (file == null) {
-                continue;
+    private void searchForEntry(@Nullable StatusBar statusBar, @NotNull ActionData data, @NotNull String key,
+                                @Nullable String fallbackKey) {
+        final Project project = data.getProject();
+
+        // The index can't be used while indexing, so wait for that to finish
+        DumbService.getInstance(project).smartInvokeLater(() -> {
+            if (project.isDisposed() || data.getEditor().isDisposed()) {
+                return;
             }
 
-            final AtomicBoolean found = new AtomicBoolean(false);
-            PsiSearchHelper.SERVICE.getInstance(data.getProject())
-                .processElementsWithWord(
-                    (element, offsetInElement) -> {
-                        McEditorUtil.gotoTargetElement(element, data.getEditor(), data.getFile());
-                        found.set(true);
-                        return false;
-                    },
-                    new LocalSearchScope(file),
-                    text,
-                    UsageSearchContext.ANY,
-                    true
-                );
-
-            if (found.get()) {
+            final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+            List<AtEntry> entries = AtEntryIndex.findEntries(key, project, scope);
+            if (entries.isEmpty() && fallbackKey != null) {
+                entries = AtEntryIndex.findEntries(fallbackKey, project, scope);
+            }
+
+            if (entries.isEmpty()) {
+                showBalloon(statusBar);
                 return;
             }
-        }
-        showBalloon(e);
+
+            McEditorUtil.gotoTargetElement(entries.get(0), data.getEditor(), data.getFile());
+        });
     }
 
-    private void showBalloon(@NotNull AnActionEvent e) {
+    private void showBalloon(@Nullable StatusBar statusBar) {
+        if (statusBar == null) {
+            return;
+        }
+
         final Balloon balloon = JBPopupFactory.getInstance()
             .createHtmlTextBalloonBuilder("No access transformer entry found", null, LightColors.YELLOW, null)
             .setHideOnAction(true)
@@ -138,8 +142,6 @@ public class GotoAtEntryAction extends AnAction {
             .setHideOnKeyOutside(true)
             .createBalloon();
 
-        final StatusBar statusBar = WindowManager.getInstance().getStatusBar(DataKeys.PROJECT.getData(e.getDataContext()));
-
         ApplicationManager.getApplication()
                           .invokeLater(() -> balloon.show(RelativePoint.getCenterOf(statusBar.getComponent()), Balloon.Position.atRight));
     }
@@ -10,12 +10,189 @@
 
 package com.demonwav.mcdev.platform.mcp.actions;
 
+import com.demonwav.mcdev.platform.mcp.McpModule;
+import com.demonwav.mcdev.platform.mcp.McpModuleType;
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap;
+import com.demonwav.mcdev.platform.mcp.srg.SrgSearchIndex;
+import com.demonwav.mcdev.util.ActionData;
+import com.demonwav.mcdev.util.McActionUtil;
+
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopup;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiIdentifier;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollingUtil;
+import com.intellij.ui.SearchTextField;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.PlatformIcons;
+import com.intellij.util.PsiNavigateUtil;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.BorderLayout;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.event.DocumentEvent;
 
+/**
+ * Shows a popup to search all mapped fields and methods by any part of their MCP, SRG or notch name.
+ */
 public class LookupMemberAction extends AnAction {
+
+    private static final int MAX_RESULTS = 100;
+
     @Override
     public void actionPerformed(AnActionEvent e) {
-        // TODO
+        final ActionData data = McActionUtil.getDataFromActionEvent(e);
+        if (data == null) {
+            return;
+        }
+
+        final McpModule mcpModule = data.getInstance().getModuleOfType(McpModuleType.getInstance());
+        if (mcpModule == null) {
+            return;
+        }
+
+        final String initialQuery = data.getElement() instanceof PsiIdentifier ? data.getElement().getText() : "";
+
+        mcpModule.getSrgManager().getSrgMap().done(srgMap -> ApplicationManager.getApplication().invokeLater(() ->
+            ProgressManager.getInstance().run(new Task.Backgroundable(data.getProject(), "Indexing MCP mappings", true) {
+                private SrgSearchIndex index;
+
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    indicator.setIndeterminate(true);
+                    // Only slow the first time, the index is cached by the SrgMap
+                    index = srgMap.getSearchIndex();
+                }
+
+                @Override
+                public void onSuccess() {
+                    if (!data.getEditor().isDisposed()) {
+                        showPopup(data.getProject(), data.getEditor(), index, initialQuery);
+                    }
+                }
+            })
+        ));
+    }
+
+    private static void showPopup(@NotNull Project project, @NotNull Editor editor, @NotNull SrgSearchIndex index,
+                                  @NotNull String initialQuery) {
+        final SearchTextField searchField = new SearchTextField(false);
+        final DefaultListModel<SrgSearchIndex.Member> model = new DefaultListModel<>();
+        final JBList<SrgSearchIndex.Member> list = new JBList<>(model);
+        list.setCellRenderer(new MemberRenderer());
+        ScrollingUtil.installActions(list, searchField.getTextEditor());
+
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(searchField, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(list), BorderLayout.CENTER);
+        panel.setPreferredSize(JBUI.size(600, 400));
+
+        final JBPopup popup = JBPopupFactory.getInstance().createComponentPopupBuilder(panel, searchField.getTextEditor())
+            .setTitle("Lookup MCP Member")
+            .setRequestFocus(true)
+            .setFocusable(true)
+            .setMovable(true)
+            .setResizable(true)
+            .setCancelOnClickOutside(true)
+            .createPopup();
+
+        final Runnable navigate = () -> {
+            final SrgSearchIndex.Member member = list.getSelectedValue();
+            if (member == null) {
+                return;
+            }
+
+            popup.cancel();
+            final PsiElement element = findElement(project, member);
+            if (element != null) {
+                PsiNavigateUtil.navigate(element);
+            }
+        };
+
+        searchField.addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(DocumentEvent e) {
+                // The index is fast enough to search on every keystroke
+                final List<SrgSearchIndex.Member> members = index.search(searchField.getText(), MAX_RESULTS);
+
+                model.clear();
+                for (SrgSearchIndex.Member member : members) {
+                    model.addElement(member);
+                }
+                if (!members.isEmpty()) {
+                    list.setSelectedIndex(0);
+                }
+            }
+        });
+
+        searchField.getTextEditor().addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    e.consume();
+                    navigate.run();
+                }
+            }
+        });
+
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(MouseEvent event) {
+                navigate.run();
+                return true;
+            }
+        }.installOn(list);
+
+        searchField.setText(initialQuery);
+        searchField.getTextEditor().selectAll();
+        popup.showInBestPositionFor(editor);
+    }
+
+    @Nullable
+    private static PsiElement findElement(@NotNull Project project, @NotNull SrgSearchIndex.Member member) {
+        final String mcpString = member.getMcpString();
+        final PsiElement element = member.isMethod() ? SrgMap.fromMethodString(mcpString, project)
+            : SrgMap.fromFieldString(mcpString, project);
+
+        // Fall back to the class if the member doesn't exist (anymore)
+        return element != null ? element : SrgMap.fromClassString(member.getOwner(), project);
+    }
+
+    private static class MemberRenderer extends ColoredListCellRenderer<SrgSearchIndex.Member> {
+        @Override
+        protected void customizeCellRenderer(@NotNull JList list, SrgSearchIndex.Member member, int index,
+                                             boolean selected, boolean hasFocus) {
+            setIcon(member.isMethod() ? PlatformIcons.METHOD_ICON : PlatformIcons.FIELD_ICON);
+
+            append(member.getMcpName());
+            append("  " + member.getSrgName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            if (member.getNotchName() != null) {
+                append("  " + member.getNotchName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+
+            final String owner = member.getOwner();
+            append("  (" + owner.substring(owner.lastIndexOf('/') + 1) + ")", SimpleTextAttributes.GRAYED_ITALIC_ATTRIBUTES);
+        }
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.actions;
+
+import com.demonwav.mcdev.platform.mcp.McpModule;
+import com.demonwav.mcdev.platform.mcp.McpModuleType;
+import com.demonwav.mcdev.platform.mcp.srg.MappingDirection;
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap;
+import com.demonwav.mcdev.util.ActionData;
+import com.demonwav.mcdev.util.McActionUtil;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.SelectionModel;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.ui.popup.PopupStep;
+import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Remaps all names in the selection (or the whole file) to another set of mappings.
+ */
+public class RemapSrgAction extends AnAction {
+    @Override
+    public void actionPerformed(AnActionEvent e) {
+        final ActionData data = McActionUtil.getDataFromActionEvent(e);
+        if (data == null) {
+            return;
+        }
+
+        final McpModule mcpModule = data.getInstance().getModuleOfType(McpModuleType.getInstance());
+        if (mcpModule == null) {
+            return;
+        }
+
+        JBPopupFactory.getInstance().createListPopup(new BaseListPopupStep<MappingDirection>("Remap", MappingDirection.values()) {
+            @Override
+            public PopupStep onChosen(MappingDirection selectedValue, boolean finalChoice) {
+                mcpModule.getSrgManager().getSrgMap().done(srgMap -> remap(data.getProject(), data.getEditor(), srgMap, selectedValue));
+                return FINAL_CHOICE;
+            }
+        }).showInBestPositionFor(data.getEditor());
+    }
+
+    private static void remap(@NotNull Project project, @NotNull Editor editor, @NotNull SrgMap srgMap,
+                              @NotNull MappingDirection direction) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            final Document document = editor.getDocument();
+            final SelectionModel selection = editor.getSelectionModel();
+
+            final int start = selection.hasSelection() ? selection.getSelectionStart() : 0;
+            final int end = selection.hasSelection() ? selection.getSelectionEnd() : document.getTextLength();
+            final String text = document.getCharsSequence().subSequence(start, end).toString();
+            final long stamp = document.getModificationStamp();
+
+            ProgressManager.getInstance().run(new Task.Backgroundable(project, "Remapping " + direction, true) {
+                private String result;
+
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    indicator.setIndeterminate(true);
+                    result = srgMap.getRemapper(direction).remap(text);
+                }
+
+                @Override
+                public void onSuccess() {
+                    if (document.getModificationStamp() != stamp || result.equals(text)) {
+                        // The document was changed in the meantime, or there is nothing to remap
+                        return;
+                    }
+
+                    new WriteCommandAction.Simple(project) {
+                        @Override
+                        protected void run() throws Throwable {
+                            document.replaceString(start, end, result);
+                        }
+                    }.execute();
+                }
+            });
+        });
+    }
+}
@@ -10,15 +10,36 @@
 
 package com.demonwav.mcdev.platform.mcp.at;
 
+import com.demonwav.mcdev.platform.mcp.at.psi.AtMixinUtil;
+import com.demonwav.mcdev.platform.mcp.srg.SrgManager;
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap;
+import com.demonwav.mcdev.platform.mcp.util.McpUtil;
+
 import com.intellij.codeInsight.completion.CompletionContributor;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
 import com.intellij.codeInsight.completion.CompletionResultSet;
 import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.codeInsight.completion.PlainPrefixMatcher;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.patterns.PlatformPatterns;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.PlatformIcons;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class AtCompletionContributor extends CompletionContributor {
     public AtCompletionContributor() {
@@ -27,14 +48,159 @@ public class AtCompletionContributor extends CompletionContributor {
             new CompletionProvider<CompletionParameters>() {
                 @Override
                 protected void addCompletions(@NotNull CompletionParameters parameters, ProcessingContext context, @NotNull CompletionResultSet result) {
+                    // The entry before the caret may not be valid yet, so find out what to complete from the text
+                    final Document document = parameters.getEditor().getDocument();
+                    final int offset = parameters.getOffset();
+                    final int lineStart = document.getLineStartOffset(document.getLineNumber(offset));
+                    final String line = document.getText(new TextRange(lineStart, offset));
+                    if (line.indexOf('#') != -1) {
+                        // Comment
+                        return;
+                    }
+
+                    final String trimmed = line.trim();
+                    final String[] tokens = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+                    final boolean newToken = line.isEmpty() || Character.isWhitespace(line.charAt(line.length() - 1));
+                    final int index = newToken ? tokens.length : tokens.length - 1;
+                    final String prefix = newToken ? "" : tokens[tokens.length - 1];
+
+                    final Project project = parameters.getPosition().getProject();
+                    final SrgManager srgManager = AtMixinUtil.getSrgManager(parameters.getOriginalFile());
+                    final SrgMap srgMap = srgManager != null ? srgManager.getSrgMapNow() : null;
 
-                    result.addElement(LookupElementBuilder.create("public"));
-                    result.addElement(LookupElementBuilder.create("public-f"));
-                    result.addElement(LookupElementBuilder.create("protected"));
-                    result.addElement(LookupElementBuilder.create("protected-f"));
-                    result.addElement(LookupElementBuilder.create("private"));
-                    result.addElement(LookupElementBuilder.create("private-f"));
+                    switch (index) {
+                        case 0:
+                            addKeywords(result);
+                            break;
+                        case 1:
+                            addClasses(project, srgMap, prefix, result.withPrefixMatcher(new PlainPrefixMatcher(prefix)));
+                            break;
+                        case 2:
+                            addMembers(project, srgMap, tokens[1], result.withPrefixMatcher(prefix));
+                            break;
+                    }
                 }
             });
     }
+
+    private static void addKeywords(@NotNull CompletionResultSet result) {
+        result.addElement(LookupElementBuilder.create("public"));
+        result.addElement(LookupElementBuilder.create("public-f"));
+        result.addElement(LookupElementBuilder.create("protected"));
+        result.addElement(LookupElementBuilder.create("protected-f"));
+        result.addElement(LookupElementBuilder.create("private"));
+        result.addElement(LookupElementBuilder.create("private-f"));
+    }
+
+    private static void addClasses(@NotNull Project project, @Nullable SrgMap srgMap, @NotNull String prefix,
+                                   @NotNull CompletionResultSet result) {
+        final Set<String> added = new HashSet<>();
+
+        if (srgMap != null) {
+            // Only the classes starting with the prefix are looked up, the names are sorted
+            for (Map.Entry<String, String> entry : srgMap.findClassesSrgToMcp(McpUtil.replaceDotWithSlash(prefix)).entrySet()) {
+                final String srgName = McpUtil.replaceSlashWithDot(entry.getKey());
+                final String mcpName = McpUtil.replaceSlashWithDot(entry.getValue());
+                added.add(srgName);
+
+                LookupElementBuilder element = LookupElementBuilder.create(srgName).withIcon(PlatformIcons.CLASS_ICON);
+                if (!mcpName.equals(srgName)) {
+                    element = element.withTypeText(mcpName).withLookupString(mcpName);
+                }
+                result.addElement(element);
+            }
+        }
+
+        // Classes that aren't mapped, e.g. from Forge or the project itself, are looked up one package at a time
+        final int dot = prefix.lastIndexOf('.');
+        final PsiPackage psiPackage = JavaPsiFacade.getInstance(project).findPackage(dot != -1 ? prefix.substring(0, dot) : "");
+        if (psiPackage == null) {
+            return;
+        }
+
+        final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        for (PsiPackage subPackage : psiPackage.getSubPackages(scope)) {
+            result.addElement(LookupElementBuilder.create(subPackage.getQualifiedName()).withIcon(PlatformIcons.PACKAGE_ICON));
+        }
+
+        for (PsiClass psiClass : psiPackage.getClasses(scope)) {
+            final String name = psiClass.getQualifiedName();
+            if (name != null && added.add(name)) {
+                result.addElement(LookupElementBuilder.create(psiClass, name).withIcon(PlatformIcons.CLASS_ICON));
+            }
+        }
+    }
+
+    private static void addMembers(@NotNull Project project, @Nullable SrgMap srgMap, @NotNull String className,
+                                   @NotNull CompletionResultSet result) {
+        result.addElement(LookupElementBuilder.create("*").withTypeText("All fields"));
+        result.addElement(LookupElementBuilder.create("*()").withTypeText("All methods"));
+
+        final String srgClass = McpUtil.replaceDotWithSlash(className);
+        boolean mapped = false;
+
+        if (srgMap != null) {
+            for (Map.Entry<String, String> entry : srgMap.findFieldsSrgToMcp(srgClass).entrySet()) {
+                mapped = true;
+                addMember(result, entry.getKey().substring(srgClass.length() + 1), entry.getValue(), false);
+            }
+
+            for (Map.Entry<String, String> entry : srgMap.findMethodsSrgToMcp(srgClass).entrySet()) {
+                mapped = true;
+                addMember(result, entry.getKey().substring(srgClass.length() + 1), entry.getValue(), true);
+            }
+        }
+
+        final String mcpClass = srgMap != null ? srgMap.findClassSrgToMcp(srgClass) : null;
+        final PsiClass psiClass = McpUtil.getClassFromString(mcpClass != null ? mcpClass : srgClass, project);
+        if (psiClass == null) {
+            return;
+        }
+
+        // Constructors are not part of the mappings, and the members of classes that aren't obfuscated are complete
+        // with their own names
+        for (PsiMethod method : psiClass.getMethods()) {
+            if (!mapped || method.isConstructor()) {
+                final String descriptor = getDescriptor(method);
+                if (descriptor != null) {
+                    final String name = method.isConstructor() ? "<init>" : method.getName();
+                    result.addElement(LookupElementBuilder.create(method, name + descriptor).withIcon(PlatformIcons.METHOD_ICON));
+                }
+            }
+        }
+
+        if (!mapped) {
+            for (PsiField field : psiClass.getFields()) {
+                result.addElement(LookupElementBuilder.create(field, field.getName()).withIcon(PlatformIcons.FIELD_ICON));
+            }
+        }
+    }
+
+    /**
+     * @param srgMember The SRG name of the member without the owner, and the descriptor for methods.
+     * @param mcp The full MCP name of the member.
+     */
+    private static void addMember(@NotNull CompletionResultSet result, @NotNull String srgMember, @NotNull String mcp,
+                                  boolean method) {
+        final int end = method ? mcp.indexOf('(') : mcp.length();
+        final String mcpName = mcp.substring(mcp.lastIndexOf('/', end) + 1, end);
+
+        // Allow typing the MCP name as well
+        result.addElement(LookupElementBuilder.create(srgMember)
+            .withLookupString(mcpName)
+            .withTypeText(mcpName)
+            .withIcon(method ? PlatformIcons.METHOD_ICON : PlatformIcons.FIELD_ICON));
+    }
+
+    @Nullable
+    private static String getDescriptor(@NotNull PsiMethod method) {
+        final String string = SrgMap.toString(method);
+        if (string == null) {
+            return null;
+        }
+
+        final String descriptor = string.substring(string.indexOf('('));
+        // Constructors don't have a return type
+        return method.isConstructor() ? descriptor.substring(0, descriptor.lastIndexOf(')') + 1) + "V" : descriptor;
+    }
 }
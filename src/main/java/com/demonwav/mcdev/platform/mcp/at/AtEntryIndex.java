@@ -0,0 +1,246 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at;
+
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the entries of all access transformer files by the class or member they transform, so they can be found
+ * without searching through every file.
+ * <p>
+ * The keys use the same format as {@link com.demonwav.mcdev.platform.mcp.srg.SrgMap}, with SRG names:
+ * <ul>
+ *     <li>{@code net/minecraft/entity/Entity} for the class itself</li>
+ *     <li>{@code net/minecraft/entity/Entity/field_70165_t} for a field, or a method with any descriptor</li>
+ *     <li>{@code net/minecraft/entity/Entity/func_70071_h_()V} for a method with the given descriptor</li>
+ *     <li>{@code net/minecraft/entity/Entity/*} and {@code net/minecraft/entity/Entity/*()} for wildcard entries</li>
+ * </ul>
+ * The values are the offsets of the matching entries in the file.
+ */
+public class AtEntryIndex extends FileBasedIndexExtension<String, List<Integer>> {
+
+    public static final ID<String, List<Integer>> NAME = ID.create("mcdev.at.entries");
+
+    @NotNull
+    @Override
+    public ID<String, List<Integer>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+        return inputData -> index(inputData.getContentAsText());
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Integer>> getValueExternalizer() {
+        return OffsetsExternalizer.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(AtFileType.getInstance());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    /**
+     * Find all access transformer entries for the given key.
+     *
+     * @param key The class or member in the format described in {@link AtEntryIndex}.
+     */
+    @NotNull
+    public static List<AtEntry> findEntries(@NotNull String key, @NotNull Project project, @NotNull GlobalSearchScope scope) {
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        final List<AtEntry> result = new ArrayList<>();
+
+        FileBasedIndex.getInstance().processValues(NAME, key, null, (file, offsets) -> {
+            final PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile == null) {
+                return true;
+            }
+
+            for (int offset : offsets) {
+                final PsiElement element = psiFile.findElementAt(offset);
+                final AtEntry entry = PsiTreeUtil.getParentOfType(element, AtEntry.class, false);
+                if (entry != null) {
+                    result.add(entry);
+                }
+            }
+            return true;
+        }, scope);
+
+        return result;
+    }
+
+    @NotNull
+    static Map<String, List<Integer>> index(@NotNull CharSequence text) {
+        final Map<String, List<Integer>> result = new HashMap<>();
+
+        final int length = text.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+
+            indexLine(text, lineStart, lineEnd, result);
+            lineStart = lineEnd + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a single line of the form {@code keyword class [member]}. Lines which don't look like this are ignored,
+     * the parser reports them as errors anyway.
+     */
+    private static void indexLine(@NotNull CharSequence text, int start, int end, @NotNull Map<String, List<Integer>> result) {
+        // Ignore comments
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '#') {
+                end = i;
+                break;
+            }
+        }
+
+        final int keywordStart = skipWhitespace(text, start, end);
+        final int keywordEnd = skipToken(text, keywordStart, end);
+        final int classStart = skipWhitespace(text, keywordEnd, end);
+        final int classEnd = skipToken(text, classStart, end);
+        if (classStart == classEnd) {
+            return;
+        }
+
+        final int memberStart = skipWhitespace(text, classEnd, end);
+        final int memberEnd = skipToken(text, memberStart, end);
+
+        final String className = text.subSequence(classStart, classEnd).toString().replace('.', '/');
+        if (memberStart == memberEnd) {
+            add(result, className, keywordStart);
+            return;
+        }
+
+        final String member = text.subSequence(memberStart, memberEnd).toString();
+        add(result, className + '/' + member, keywordStart);
+
+        final int paren = member.indexOf('(');
+        if (paren > 0 && !member.startsWith("*")) {
+            // Also allow finding methods without the descriptor
+            add(result, className + '/' + member.substring(0, paren), keywordStart);
+        }
+    }
+
+    private static void add(@NotNull Map<String, List<Integer>> result, @NotNull String key, int offset) {
+        result.computeIfAbsent(key, k -> new ArrayList<>(1)).add(offset);
+    }
+
+    @Contract(pure = true)
+    private static int skipWhitespace(@NotNull CharSequence text, int index, int end) {
+        while (index < end && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    @Contract(pure = true)
+    private static int skipToken(@NotNull CharSequence text, int index, int end) {
+        while (index < end && !Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static class OffsetsExternalizer implements DataExternalizer<List<Integer>> {
+
+        private static final OffsetsExternalizer INSTANCE = new OffsetsExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, @Nullable List<Integer> value) throws IOException {
+            if (value == null) {
+                DataInputOutputUtil.writeINT(out, 0);
+                return;
+            }
+
+            DataInputOutputUtil.writeINT(out, value.size());
+            // Offsets are sorted, so store the differences which are usually small
+            int last = 0;
+            for (int offset : value) {
+                DataInputOutputUtil.writeINT(out, offset - last);
+                last = offset;
+            }
+        }
+
+        @Override
+        public List<Integer> read(@NotNull DataInput in) throws IOException {
+            final int size = DataInputOutputUtil.readINT(in);
+            if (size == 0) {
+                return Collections.emptyList();
+            }
+
+            final List<Integer> result = new ArrayList<>(size);
+            int last = 0;
+            for (int i = 0; i < size; i++) {
+                last += DataInputOutputUtil.readINT(in);
+                result.add(last);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at;
+
+import com.demonwav.mcdev.buildsystem.BuildSystem;
+import com.demonwav.mcdev.buildsystem.SourceType;
+import com.demonwav.mcdev.platform.MinecraftModule;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCodeBlock;
+import com.intellij.psi.PsiExpression;
+import com.intellij.psi.PsiExpressionStatement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiKeyword;
+import com.intellij.psi.PsiLiteralExpression;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiMethodCallExpression;
+import com.intellij.psi.PsiReferenceList;
+import com.intellij.psi.PsiStatement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.ScalarIndexExtension;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+/**
+ * Indexes the paths of the access transformer files a project declares, so they can be found without searching
+ * through all subclasses of the Forge {@code AccessTransformer} at startup. The paths are taken from:
+ * <ul>
+ *     <li>{@code super("mod_at.cfg")} calls in the constructors of classes extending {@code AccessTransformer}
+ *     (coremods)</li>
+ *     <li>the {@code FMLAT} attribute of {@code META-INF/MANIFEST.MF}, which refers to files in {@code META-INF}</li>
+ * </ul>
+ * The keys are the paths relative to the resource roots.
+ */
+public class AtFileNameIndex extends ScalarIndexExtension<String> {
+
+    public static final ID<String, Void> NAME = ID.create("mcdev.at.files");
+
+    private static final String ACCESS_TRANSFORMER_CLASS = "AccessTransformer";
+    private static final String MANIFEST = "MANIFEST.MF";
+    private static final Attributes.Name FMLAT = new Attributes.Name("FMLAT");
+
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            if (inputData.getFileType() == JavaFileType.INSTANCE) {
+                // Don't build the PSI of files which can't contain an access transformer
+                if (!StringUtil.contains(inputData.getContentAsText(), ACCESS_TRANSFORMER_CLASS)) {
+                    return Collections.emptyMap();
+                }
+                return indexJavaFile(inputData.getPsiFile());
+            } else {
+                return indexManifest(inputData.getContent());
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == JavaFileType.INSTANCE || file.getName().equals(MANIFEST);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    /**
+     * Find all access transformer files declared by the given module. Must not be called in dumb mode.
+     */
+    @NotNull
+    public static Set<VirtualFile> findAccessTransformers(@NotNull Module module) {
+        final MinecraftModule minecraftModule = MinecraftModule.getInstance(module);
+        final BuildSystem buildSystem = minecraftModule != null ? minecraftModule.getBuildSystem() : null;
+        if (buildSystem == null) {
+            return Collections.emptySet();
+        }
+
+        final FileBasedIndex index = FileBasedIndex.getInstance();
+        final GlobalSearchScope scope = GlobalSearchScope.moduleScope(module);
+
+        final List<String> paths = new ArrayList<>();
+        index.processAllKeys(NAME, paths::add, scope, null);
+
+        final Set<VirtualFile> result = new HashSet<>();
+        for (String path : paths) {
+            // The scope is only a hint, keys of other modules and of files which no longer exist may be returned
+            if (index.getContainingFiles(NAME, path, scope).isEmpty()) {
+                continue;
+            }
+
+            final VirtualFile file = buildSystem.findFile(path, SourceType.RESOURCE);
+            if (file != null) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    static Map<String, Void> indexJavaFile(@Nullable PsiFile file) {
+        if (!(file instanceof PsiJavaFile)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Void> result = new HashMap<>();
+        for (PsiClass psiClass : ((PsiJavaFile) file).getClasses()) {
+            indexClass(psiClass, result);
+        }
+        return result;
+    }
+
+    private static void indexClass(@NotNull PsiClass psiClass, @NotNull Map<String, Void> result) {
+        if (extendsAccessTransformer(psiClass)) {
+            for (PsiMethod constructor : psiClass.getConstructors()) {
+                indexSuperCall(constructor, result);
+            }
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            indexClass(innerClass, result);
+        }
+    }
+
+    /**
+     * Check if the extends clause of the class names {@code AccessTransformer}. Classes can't be resolved while
+     * indexing, so only the name is compared.
+     */
+    private static boolean extendsAccessTransformer(@NotNull PsiClass psiClass) {
+        final PsiReferenceList extendsList = psiClass.getExtendsList();
+        if (extendsList == null) {
+            return false;
+        }
+
+        for (PsiJavaCodeReferenceElement reference : extendsList.getReferenceElements()) {
+            if (ACCESS_TRANSFORMER_CLASS.equals(reference.getReferenceName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void indexSuperCall(@NotNull PsiMethod constructor, @NotNull Map<String, Void> result) {
+        final PsiCodeBlock body = constructor.getBody();
+        if (body == null) {
+            return;
+        }
+
+        // The super call is always the first statement of the constructor
+        final PsiStatement[] statements = body.getStatements();
+        if (statements.length == 0 || !(statements[0] instanceof PsiExpressionStatement)) {
+            return;
+        }
+
+        final PsiExpression expression = ((PsiExpressionStatement) statements[0]).getExpression();
+        if (!(expression instanceof PsiMethodCallExpression)) {
+            return;
+        }
+
+        final PsiMethodCallExpression call = (PsiMethodCallExpression) expression;
+        if (!PsiKeyword.SUPER.equals(call.getMethodExpression().getReferenceName())) {
+            return;
+        }
+
+        for (PsiExpression argument : call.getArgumentList().getExpressions()) {
+            if (argument instanceof PsiLiteralExpression) {
+                final Object value = ((PsiLiteralExpression) argument).getValue();
+                if (value instanceof String) {
+                    result.put((String) value, null);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    static Map<String, Void> indexManifest(@NotNull byte[] content) {
+        final String value;
+        try {
+            value = new Manifest(new ByteArrayInputStream(content)).getMainAttributes().getValue(FMLAT);
+        } catch (IOException e) {
+            // Invalid manifest, FML can't read it either
+            return Collections.emptyMap();
+        }
+
+        if (value == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Void> result = new HashMap<>();
+        for (String name : value.trim().split("\\s+")) {
+            if (!name.isEmpty()) {
+                result.put("META-INF/" + name, null);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites the text of an access transformer file, so every class and member only has a single entry:
+ * <ul>
+ *     <li>Entries for the same class or member are merged, using the widest access and removing {@code final}
+ *     if any of them does.</li>
+ *     <li>Entries are sorted by class, the entry for the class itself comes before the entries of its members.</li>
+ *     <li>Comments on their own line stay with the entry below them, comments at the end of a line stay with the
+ *     entry on that line. Comments at the start of the file are kept there, up to the last blank line before the
+ *     first entry.</li>
+ *     <li>Lines which can't be parsed are kept unchanged at the end of the file.</li>
+ * </ul>
+ * The file is only read once and the entries are grouped in a hash map, so this is fast even for large files.
+ */
+public final class AtNormalizer {
+
+    private AtNormalizer() {}
+
+    @NotNull
+    public static String normalize(@NotNull CharSequence text) {
+        final List<String> header = new ArrayList<>();
+        final List<String> invalid = new ArrayList<>();
+        final Map<String, Entry> entries = new HashMap<>();
+
+        List<String> comments = new ArrayList<>();
+        boolean inHeader = true;
+
+        final int length = text.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && text.charAt(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            final String line = text.subSequence(lineStart, contentEnd).toString();
+            lineStart = lineEnd + 1;
+
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+                if (inHeader) {
+                    header.add(line);
+                } else if (!trimmed.isEmpty()) {
+                    comments.add(trimmed);
+                }
+                continue;
+            }
+
+            if (inHeader) {
+                inHeader = false;
+                // The header ends at the last blank line, the comments after it belong to the first entry
+                int headerEnd = header.size();
+                while (headerEnd > 0 && !header.get(headerEnd - 1).trim().isEmpty()) {
+                    headerEnd--;
+                }
+
+                final List<String> entryComments = header.subList(headerEnd, header.size());
+                for (String comment : entryComments) {
+                    comments.add(comment.trim());
+                }
+                entryComments.clear();
+            }
+
+            final Entry entry = parse(trimmed);
+            if (entry == null) {
+                invalid.add(line);
+                continue;
+            }
+
+            entry.comments = comments;
+            comments = new ArrayList<>();
+
+            final Entry existing = entries.putIfAbsent(entry.key, entry);
+            if (existing != null) {
+                existing.merge(entry);
+            }
+        }
+
+        final List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(null);
+
+        final StringBuilder result = new StringBuilder(length + 16);
+        final StringBuilder headerBuilder = new StringBuilder();
+        for (String line : header) {
+            headerBuilder.append(line).append('\n');
+        }
+        final String headerText = headerBuilder.toString();
+        if (!headerText.trim().isEmpty()) {
+            result.append(headerText);
+            // Keep the header separated from the entries
+            if (!sorted.isEmpty() && !headerText.endsWith("\n\n")) {
+                result.append('\n');
+            }
+        }
+
+        for (Entry entry : sorted) {
+            entry.appendTo(result);
+        }
+        for (String comment : comments) {
+            result.append(comment).append('\n');
+        }
+        for (String line : invalid) {
+            result.append(line).append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return The class or member the given entry applies to, in the form used to find entries for the same target.
+     *         {@code null} if the entry can't be parsed.
+     */
+    @Nullable
+    public static String getKey(@NotNull String entry) {
+        final Entry parsed = parse(entry.trim());
+        return parsed != null ? parsed.key : null;
+    }
+
+    @Nullable
+    private static Entry parse(@NotNull String line) {
+        if (line.isEmpty() || line.charAt(0) == '#') {
+            return null;
+        }
+
+        String comment = null;
+        final int hash = line.indexOf('#');
+        if (hash != -1) {
+            comment = line.substring(hash + 1).trim();
+            line = line.substring(0, hash).trim();
+        }
+
+        final String[] tokens = new String[3];
+        int count = 0;
+        int index = 0;
+        while (index < line.length()) {
+            while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+                index++;
+            }
+            final int start = index;
+            while (index < line.length() && !Character.isWhitespace(line.charAt(index))) {
+                index++;
+            }
+
+            if (start < index) {
+                if (count == tokens.length) {
+                    return null;
+                }
+                tokens[count++] = line.substring(start, index);
+            }
+        }
+        if (count < 2) {
+            return null;
+        }
+
+        final String keyword = tokens[0];
+        final boolean removeFinal = keyword.endsWith("-f");
+        final int level = getLevel(removeFinal ? keyword.substring(0, keyword.length() - 2) : keyword);
+        if (level == -1) {
+            return null;
+        }
+
+        final String className = tokens[1];
+        final String member = tokens[2];
+        return new Entry(className, member, level, removeFinal, comment != null && !comment.isEmpty() ? comment : null);
+    }
+
+    @Contract(pure = true)
+    private static int getLevel(@NotNull String keyword) {
+        switch (keyword) {
+            case "private":
+                return 0;
+            case "protected":
+                return 1;
+            case "public":
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    private static String getKeyword(int level, boolean removeFinal) {
+        final String keyword = level == 2 ? "public" : level == 1 ? "protected" : "private";
+        return removeFinal ? keyword + "-f" : keyword;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final String key;
+        private final String className;
+        private final String member;
+        private int level;
+        private boolean removeFinal;
+        private String comment;
+        private List<String> comments;
+
+        private Entry(@NotNull String className, @Nullable String member, int level, boolean removeFinal,
+                      @Nullable String comment) {
+            // Both . and / are accepted as package separator
+            final String normalizedClass = className.replace('/', '.');
+            this.key = member != null ? normalizedClass + ' ' + member : normalizedClass;
+            this.className = className;
+            this.member = member;
+            this.level = level;
+            this.removeFinal = removeFinal;
+            this.comment = comment;
+        }
+
+        private void merge(@NotNull Entry other) {
+            level = Math.max(level, other.level);
+            removeFinal |= other.removeFinal;
+            if (comment == null) {
+                comment = other.comment;
+            } else if (other.comment != null && !other.comment.equals(comment)) {
+                comment = comment + "; " + other.comment;
+            }
+
+            if (!other.comments.isEmpty()) {
+                final Set<String> merged = new LinkedHashSet<>(comments);
+                merged.addAll(other.comments);
+                comments = new ArrayList<>(merged);
+            }
+        }
+
+        private void appendTo(@NotNull StringBuilder builder) {
+            for (String line : comments) {
+                builder.append(line).append('\n');
+            }
+
+            builder.append(getKeyword(level, removeFinal)).append(' ').append(className);
+            if (member != null) {
+                builder.append(' ').append(member);
+            }
+            if (comment != null) {
+                builder.append(" # ").append(comment);
+            }
+            builder.append('\n');
+        }
+
+        @Override
+        public int compareTo(@NotNull Entry other) {
+            // The key starts with the class name, and the entry of the class itself is shorter than its members
+            return key.compareTo(other.key);
+        }
+    }
+}
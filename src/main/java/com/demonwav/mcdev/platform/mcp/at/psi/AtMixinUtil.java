@@ -10,14 +10,31 @@
 
 package com.demonwav.mcdev.platform.mcp.at.psi;
 
+import com.demonwav.mcdev.platform.MinecraftModule;
+import com.demonwav.mcdev.platform.mcp.McpModule;
+import com.demonwav.mcdev.platform.mcp.McpModuleType;
+import com.demonwav.mcdev.platform.mcp.srg.SrgManager;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 public final class AtMixinUtil {
+    private static final String[] PRIMITIVES = {"B", "C", "D", "F", "I", "J", "S", "Z"};
+
     private AtMixinUtil() {}
 
     @Nullable
@@ -26,8 +43,6 @@ public final class AtMixinUtil {
             return null;
         }
 
-        final JavaPsiFacade instance = JavaPsiFacade.getInstance(project);
-
         // We don't care about arrays
         text = text.replaceAll("\\[", "");
 
@@ -38,29 +53,72 @@ public final class AtMixinUtil {
             text = text.replaceAll(";", "");
             text = text.replaceAll("/", ".");
 
-            return instance.findClass(text, GlobalSearchScope.allScope(project));
+            return JavaPsiFacade.getInstance(project).findClass(text, GlobalSearchScope.allScope(project));
         } else {
-            // Primitive
-            switch (text) {
-                case "B":
-                    return instance.findClass(Integer.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "C":
-                    return instance.findClass(Character.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "D":
-                    return instance.findClass(Double.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "F":
-                    return instance.findClass(Float.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "I":
-                    return instance.findClass(Integer.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "J":
-                    return instance.findClass(Long.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "S":
-                    return instance.findClass(Short.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                case "Z":
-                    return instance.findClass(Boolean.class.getCanonicalName(), GlobalSearchScope.allScope(project));
-                default:
-                    return null;
+            return getPrimitiveWrapperClass(text, project);
+        }
+    }
+
+    /**
+     * Get the wrapper class of a primitive type descriptor, e.g. {@code java.lang.Integer} for {@code I}. The classes
+     * are only looked up once per project, until the project roots change.
+     */
+    @Nullable
+    public static PsiClass getPrimitiveWrapperClass(@NotNull String primitive, @NotNull Project project) {
+        final Map<String, PsiClass> classes = CachedValuesManager.getManager(project).getCachedValue(project, () -> {
+            final JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+            final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+
+            final Map<String, PsiClass> result = new HashMap<>();
+            for (String p : PRIMITIVES) {
+                result.put(p, facade.findClass(getPrimitiveWrapperName(p), scope));
             }
+            return CachedValueProvider.Result.create(Collections.unmodifiableMap(result), ProjectRootManager.getInstance(project));
+        });
+
+        return classes.get(primitive);
+    }
+
+    @NotNull
+    private static String getPrimitiveWrapperName(@NotNull String primitive) {
+        switch (primitive) {
+            case "B":
+                return Byte.class.getCanonicalName();
+            case "C":
+                return Character.class.getCanonicalName();
+            case "D":
+                return Double.class.getCanonicalName();
+            case "F":
+                return Float.class.getCanonicalName();
+            case "I":
+                return Integer.class.getCanonicalName();
+            case "J":
+                return Long.class.getCanonicalName();
+            case "S":
+                return Short.class.getCanonicalName();
+            case "Z":
+                return Boolean.class.getCanonicalName();
+            default:
+                throw new IllegalArgumentException("Unknown primitive type: " + primitive);
+        }
+    }
+
+    /**
+     * Get the {@link SrgManager} of the MCP module the given element belongs to.
+     */
+    @Nullable
+    public static SrgManager getSrgManager(@NotNull PsiElement element) {
+        final Module module = ModuleUtilCore.findModuleForPsiElement(element);
+        if (module == null) {
+            return null;
         }
+
+        final MinecraftModule instance = MinecraftModule.getInstance(module);
+        if (instance == null) {
+            return null;
+        }
+
+        final McpModule mcpModule = instance.getModuleOfType(McpModuleType.getInstance());
+        return mcpModule != null ? mcpModule.getSrgManager() : null;
     }
 }
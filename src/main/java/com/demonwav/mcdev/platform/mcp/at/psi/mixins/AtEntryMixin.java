@@ -17,7 +17,9 @@ import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFieldName;
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFunction;
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtKeyword;
 
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMember;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -49,4 +51,18 @@ public interface AtEntryMixin extends PsiElement {
     void setFunction(@NotNull String function);
 
     void setAsterisk();
+
+    /**
+     * @return The MCP class this entry transforms, or {@code null} if it can't be found. The result is cached until
+     *         the PSI or the SRG map changes.
+     */
+    @Nullable
+    PsiClass resolveClass();
+
+    /**
+     * @return The MCP field, method or constructor this entry transforms, or {@code null} if it can't be found or
+     *         the entry applies to the whole class. The result is cached until the PSI or the SRG map changes.
+     */
+    @Nullable
+    PsiMember resolveMember();
 }
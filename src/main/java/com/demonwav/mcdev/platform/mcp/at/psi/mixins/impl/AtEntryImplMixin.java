@@ -14,12 +14,25 @@ import com.demonwav.mcdev.platform.mcp.at.AtElementFactory;
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtAsterisk;
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFieldName;
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFunction;
+import com.demonwav.mcdev.platform.mcp.at.psi.AtMixinUtil;
 import com.demonwav.mcdev.platform.mcp.at.psi.mixins.AtEntryMixin;
+import com.demonwav.mcdev.platform.mcp.srg.SrgManager;
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap;
+import com.demonwav.mcdev.platform.mcp.util.McpUtil;
 
 import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMember;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AtEntryImplMixin extends ASTWrapperPsiElement implements AtEntryMixin {
     public AtEntryImplMixin(@NotNull ASTNode node) {
@@ -63,4 +76,83 @@ public abstract class AtEntryImplMixin extends ASTWrapperPsiElement implements A
             getAsterisk().replace(element);
         }
     }
+
+    @Nullable
+    @Override
+    public PsiClass resolveClass() {
+        return getResolved().psiClass;
+    }
+
+    @Nullable
+    @Override
+    public PsiMember resolveMember() {
+        return getResolved().member;
+    }
+
+    @NotNull
+    private Resolved getResolved() {
+        return CachedValuesManager.getCachedValue(this, () -> {
+            final SrgManager srgManager = AtMixinUtil.getSrgManager(this);
+            if (srgManager == null) {
+                return CachedValueProvider.Result.create(Resolved.NONE, PsiModificationTracker.MODIFICATION_COUNT);
+            }
+
+            // Also depend on the SRG map if it isn't loaded yet, so the entry is resolved again once it is
+            final SrgMap srgMap = srgManager.getSrgMapNow();
+            return CachedValueProvider.Result.create(
+                srgMap != null ? resolve(srgMap) : Resolved.NONE,
+                PsiModificationTracker.MODIFICATION_COUNT,
+                srgManager.getModificationTracker()
+            );
+        });
+    }
+
+    @NotNull
+    private Resolved resolve(@NotNull SrgMap srgMap) {
+        final Project project = getProject();
+        final String classNameText = getClassName().getClassNameText();
+        final String className = McpUtil.replaceDotWithSlash(classNameText);
+
+        PsiClass psiClass = SrgMap.fromClassString(srgMap.findClassSrgToMcp(className), project);
+        if (psiClass == null) {
+            // Classes that aren't obfuscated
+            psiClass = JavaPsiFacade.getInstance(project).findClass(classNameText, GlobalSearchScope.allScope(project));
+            if (psiClass == null) {
+                return Resolved.NONE;
+            }
+        }
+
+        final PsiMember member;
+        final AtFunction function = getFunction();
+        final AtFieldName fieldName = getFieldName();
+        if (function != null) {
+            if (function.getFuncName().getFuncNameText().equals("<init>")) {
+                member = SrgMap.fromConstructorString(function.getText(), psiClass);
+            } else {
+                final String method = className + "/" + function.getText();
+                final String methodSrgToMcp = srgMap.findMethodSrgToMcp(method);
+                member = SrgMap.fromMethodString(methodSrgToMcp != null ? methodSrgToMcp : method, project);
+            }
+        } else if (fieldName != null) {
+            final String field = className + "/" + fieldName.getFieldNameText();
+            final String fieldSrgToMcp = srgMap.findFieldSrgToMcp(field);
+            member = SrgMap.fromFieldString(fieldSrgToMcp != null ? fieldSrgToMcp : field, project);
+        } else {
+            member = null;
+        }
+
+        return new Resolved(psiClass, member);
+    }
+
+    private static final class Resolved {
+        private static final Resolved NONE = new Resolved(null, null);
+
+        private final PsiClass psiClass;
+        private final PsiMember member;
+
+        private Resolved(@Nullable PsiClass psiClass, @Nullable PsiMember member) {
+            this.psiClass = psiClass;
+            this.member = member;
+        }
+    }
 }
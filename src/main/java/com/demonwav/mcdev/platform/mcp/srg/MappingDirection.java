@@ -0,0 +1,53 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+public enum MappingDirection {
+    MCP_TO_SRG("MCP", "SRG"),
+    SRG_TO_MCP("SRG", "MCP"),
+    NOTCH_TO_SRG("Notch", "SRG"),
+    SRG_TO_NOTCH("SRG", "Notch"),
+    NOTCH_TO_MCP("Notch", "MCP"),
+    MCP_TO_NOTCH("MCP", "Notch");
+
+    private final String from;
+    private final String to;
+
+    MappingDirection(@NotNull String from, @NotNull String to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public String getFrom() {
+        return from;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public String getTo() {
+        return to;
+    }
+
+    @Contract(pure = true)
+    public boolean isFromNotch() {
+        return this == NOTCH_TO_SRG || this == NOTCH_TO_MCP;
+    }
+
+    @Override
+    public String toString() {
+        return from + " -> " + to;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import com.intellij.openapi.progress.ProgressManager;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+/**
+ * The MCP names of SRG fields, methods and parameters (e.g. {@code func_71410_x -> getMinecraft}), read from the
+ * {@code fields.csv}, {@code methods.csv} and {@code params.csv} files of an MCP mappings version.
+ */
+final class McpNameTable {
+
+    static final McpNameTable EMPTY =
+        new McpNameTable(new StringPool.Builder().build(), new MemberTable.Builder(1).build(new StringPool.Builder()));
+
+    private final StringPool pool;
+    // From: SRG
+    // To: MCP
+    private final MemberTable names;
+
+    private McpNameTable(@NotNull StringPool pool, @NotNull MemberTable names) {
+        this.pool = pool;
+        this.names = names;
+    }
+
+    @NotNull
+    static McpNameTable read(@NotNull Collection<Path> csvFiles) throws IOException {
+        final StringPool.Builder pool = new StringPool.Builder();
+        final MemberTable.Builder names = new MemberTable.Builder(1);
+        final int[] fromKey = new int[1];
+        final int[] toKey = new int[1];
+
+        for (Path csvFile : csvFiles) {
+            try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+                // Skip header: searge,name,side,desc or param,name,side
+                String line = reader.readLine();
+
+                while ((line = reader.readLine()) != null) {
+                    ProgressManager.checkCanceled();
+
+                    // Only the first two columns are needed, neither of them can contain commas
+                    final int first = line.indexOf(',');
+                    if (first == -1) {
+                        continue;
+                    }
+                    int second = line.indexOf(',', first + 1);
+                    if (second == -1) {
+                        second = line.length();
+                    }
+
+                    fromKey[0] = pool.intern(line.substring(0, first));
+                    toKey[0] = pool.intern(line.substring(first + 1, second));
+                    names.add(fromKey, toKey);
+                }
+            }
+        }
+
+        return new McpNameTable(pool.build(), names.build(pool));
+    }
+
+    /**
+     * Create a table with the simple names of all fields and methods in the given SRG table, for when the CSV files
+     * are not available.
+     *
+     * @param inverse Whether the SRG names are the {@code to} names of the SRG table.
+     */
+    @NotNull
+    static McpNameTable fromSrgTable(@NotNull SrgTable table, boolean inverse) {
+        final StringPool.Builder pool = new StringPool.Builder();
+        final MemberTable.Builder names = new MemberTable.Builder(1);
+        final int[] fromKey = new int[1];
+        final int[] toKey = new int[1];
+
+        table.accept(new SrgParser.Handler() {
+            @Override
+            public void acceptClass(@NotNull String from, @NotNull String to) {
+            }
+
+            @Override
+            public void acceptField(@NotNull String from, @NotNull String to) {
+                acceptMember(from, to);
+            }
+
+            @Override
+            public void acceptMethod(@NotNull String fromName, @NotNull String fromDesc, @NotNull String toName, @NotNull String toDesc) {
+                acceptMember(fromName, toName);
+            }
+
+            private void acceptMember(@NotNull String srg, @NotNull String mcp) {
+                fromKey[0] = pool.intern(srg.substring(srg.lastIndexOf('/') + 1));
+                toKey[0] = pool.intern(mcp.substring(mcp.lastIndexOf('/') + 1));
+                names.add(fromKey, toKey);
+            }
+        }, inverse);
+
+        return new McpNameTable(pool.build(), names.build(pool));
+    }
+
+    /**
+     * Pass all SRG and MCP name pairs of this table to the given consumer.
+     */
+    void accept(@NotNull BiConsumer<String, String> consumer) {
+        for (int entry = 0; entry < names.size(); entry++) {
+            consumer.accept(pool.get(names.from(entry, 0)), pool.get(names.to(entry, 0)));
+        }
+    }
+
+    /**
+     * Get the MCP name of the given SRG field, method or parameter name.
+     */
+    @Nullable
+    @Contract(pure = true)
+    String toMcp(@NotNull String srgName) {
+        return toMcp(srgName, 0, srgName.length());
+    }
+
+    /**
+     * Get the MCP name of the SRG name in the given region of a {@link CharSequence}, without creating a substring
+     * for it.
+     */
+    @Nullable
+    @Contract(pure = true)
+    String toMcp(@NotNull CharSequence s, int start, int end) {
+        final int id = pool.indexOf(s, start, end);
+        if (id == -1) {
+            return null;
+        }
+
+        final int entry = names.findFrom(id);
+        return entry != -1 ? pool.get(names.to(entry, 0)) : null;
+    }
+}
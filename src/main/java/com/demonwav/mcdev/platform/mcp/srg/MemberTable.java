@@ -0,0 +1,394 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A table of mappings between two sets of names, stored as {@link StringPool} ids. Each side of an entry is a key made
+ * of {@code width} ids, e.g. {@code owner, name, descriptor} for methods. Entries are sorted by their {@code from} key,
+ * and a separate permutation keeps them sorted by their {@code to} key, so both directions can be looked up using a
+ * binary search. The permutation is only created once the table is first searched by a {@code to} key.
+ */
+final class MemberTable {
+
+    private final int width;
+    private final int size;
+
+    private final int[] from;
+    private final int[] to;
+    // Entry indices sorted by their to key, created lazily
+    @Nullable
+    private volatile int[] toOrder;
+
+    private MemberTable(int width, int size, @NotNull int[] from, @NotNull int[] to, @Nullable int[] toOrder) {
+        this.width = width;
+        this.size = size;
+        this.from = from;
+        this.to = to;
+        this.toOrder = toOrder;
+    }
+
+    @Contract(pure = true)
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get a single id of the {@code from} key of the given entry.
+     */
+    @Contract(pure = true)
+    int from(int entry, int component) {
+        return from[entry * width + component];
+    }
+
+    /**
+     * Get a single id of the {@code to} key of the given entry.
+     */
+    @Contract(pure = true)
+    int to(int entry, int component) {
+        return to[entry * width + component];
+    }
+
+    /**
+     * Find the entry whose {@code from} key equals the given key.
+     *
+     * @return The index of the entry, or {@code -1} if there is none.
+     */
+    @Contract(pure = true)
+    int findFrom(@NotNull int... key) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int c = compare(from, mid, key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Find the entry whose {@code to} key equals the given key.
+     *
+     * @return The index of the entry, or {@code -1} if there is none.
+     */
+    @Contract(pure = true)
+    int findTo(@NotNull int... key) {
+        final int[] toOrder = getToOrder();
+
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int entry = toOrder[mid];
+            final int c = compare(to, entry, key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(size);
+        writeInts(out, from);
+        writeInts(out, to);
+
+        // The reverse index is only stored if it was needed before
+        final int[] toOrder = this.toOrder;
+        out.writeBoolean(toOrder != null);
+        if (toOrder != null) {
+            writeInts(out, toOrder);
+        }
+    }
+
+    /**
+     * Read a table written by {@link #write(DataOutput)}, checking that all ids are valid for a pool of the given
+     * size.
+     */
+    @NotNull
+    static MemberTable read(@NotNull ByteBuffer buffer, int width, int poolSize) throws IOException {
+        final int actualWidth = buffer.getInt();
+        final int size = buffer.getInt();
+        if (actualWidth != width || size < 0 || 2L * width * size * 4 > buffer.remaining()) {
+            throw new IOException("Invalid member table header: width " + actualWidth + ", size " + size);
+        }
+
+        final int[] from = readInts(buffer, size * width, poolSize);
+        final int[] to = readInts(buffer, size * width, poolSize);
+        final int[] toOrder = buffer.get() != 0 ? readInts(buffer, size, size) : null;
+        return new MemberTable(width, size, from, to, toOrder);
+    }
+
+    @NotNull
+    private int[] getToOrder() {
+        int[] result = toOrder;
+        if (result == null) {
+            synchronized (this) {
+                result = toOrder;
+                if (result == null) {
+                    result = identity(size);
+                    sort(result, (a, b) -> compare(to, width, a, b));
+                    toOrder = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void writeInts(@NotNull DataOutput out, @NotNull int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    @NotNull
+    private static int[] readInts(@NotNull ByteBuffer buffer, int length, int bound) throws IOException {
+        if ((long) length * 4 > buffer.remaining()) {
+            throw new IOException("Invalid member table length: " + length);
+        }
+
+        final int[] result = new int[length];
+        buffer.asIntBuffer().get(result);
+        buffer.position(buffer.position() + length * 4);
+
+        for (int value : result) {
+            if (value < 0 || value >= bound) {
+                throw new IOException("Invalid id in member table: " + value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find all entries whose {@code from} key starts with the given id, e.g. all members of an owner class. Since the
+     * entries are sorted, they are stored next to each other, so this only needs to search for the first and last one.
+     *
+     * @return The indices of the entries, in the order of their {@code from} key.
+     */
+    @NotNull
+    @Contract(pure = true)
+    int[] findAllFrom(int first) {
+        return findAllFrom(first, first + 1);
+    }
+
+    /**
+     * Find all entries whose {@code from} key starts with an id in the given range, e.g. all strings with a prefix
+     * found using {@link StringPool#findPrefix(String)}.
+     *
+     * @param start The first id, inclusive.
+     * @param end The last id, exclusive.
+     * @return The indices of the entries, in the order of their {@code from} key.
+     */
+    @NotNull
+    @Contract(pure = true)
+    int[] findAllFrom(int start, int end) {
+        final int startEntry = lowerBound(from, null, start);
+        final int endEntry = lowerBound(from, null, end);
+
+        final int[] result = new int[endEntry - startEntry];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = startEntry + i;
+        }
+        return result;
+    }
+
+    /**
+     * Find all entries whose {@code to} key starts with the given id.
+     *
+     * @return The indices of the entries, in the order of their {@code to} key.
+     */
+    @NotNull
+    @Contract(pure = true)
+    int[] findAllTo(int first) {
+        return findAllTo(first, first + 1);
+    }
+
+    /**
+     * Find all entries whose {@code to} key starts with an id in the given range.
+     *
+     * @param start The first id, inclusive.
+     * @param end The last id, exclusive.
+     * @return The indices of the entries, in the order of their {@code to} key.
+     */
+    @NotNull
+    @Contract(pure = true)
+    int[] findAllTo(int start, int end) {
+        final int[] toOrder = getToOrder();
+        final int startEntry = lowerBound(to, toOrder, start);
+        final int endEntry = lowerBound(to, toOrder, end);
+        return Arrays.copyOfRange(toOrder, startEntry, endEntry);
+    }
+
+    /**
+     * Find the position of the first entry whose key starts with an id greater than or equal to the given one.
+     */
+    @Contract(pure = true)
+    private int lowerBound(@NotNull int[] keys, @Nullable int[] order, int first) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int entry = order != null ? order[mid] : mid;
+            if (keys[entry * width] < first) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    @Contract(pure = true)
+    private int compare(@NotNull int[] keys, int entry, @NotNull int[] key) {
+        final int offset = entry * width;
+        for (int i = 0; i < width; i++) {
+            final int c = Integer.compare(keys[offset + i], key[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    @Contract(pure = true)
+    private static int compare(@NotNull int[] keys, int width, int a, int b) {
+        final int offsetA = a * width;
+        final int offsetB = b * width;
+        for (int i = 0; i < width; i++) {
+            final int c = Integer.compare(keys[offsetA + i], keys[offsetB + i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sort an array of indices using the given comparator, without boxing them.
+     */
+    private static void sort(@NotNull int[] indices, @NotNull IntBinaryOperator comparator) {
+        final int[] buffer = new int[indices.length];
+        mergeSort(indices, buffer, 0, indices.length, comparator);
+    }
+
+    private static void mergeSort(@NotNull int[] a, @NotNull int[] buffer, int start, int end, @NotNull IntBinaryOperator comparator) {
+        if (end - start < 2) {
+            return;
+        }
+
+        final int mid = (start + end) >>> 1;
+        mergeSort(a, buffer, start, mid, comparator);
+        mergeSort(a, buffer, mid, end, comparator);
+
+        if (comparator.applyAsInt(a[mid - 1], a[mid]) <= 0) {
+            // Already sorted
+            return;
+        }
+
+        System.arraycopy(a, start, buffer, start, end - start);
+        int i = start;
+        int j = mid;
+        for (int k = start; k < end; k++) {
+            if (j >= end || (i < mid && comparator.applyAsInt(buffer[i], buffer[j]) <= 0)) {
+                a[k] = buffer[i++];
+            } else {
+                a[k] = buffer[j++];
+            }
+        }
+    }
+
+    /**
+     * Collects entries using temporary {@link StringPool.Builder} ids.
+     */
+    static final class Builder {
+
+        private final int width;
+        private int size;
+        private int[] from;
+        private int[] to;
+
+        Builder(int width) {
+            this.width = width;
+            this.from = new int[16 * width];
+            this.to = new int[16 * width];
+        }
+
+        void add(@NotNull int[] fromKey, @NotNull int[] toKey) {
+            if ((size + 1) * width > from.length) {
+                from = Arrays.copyOf(from, from.length * 2);
+                to = Arrays.copyOf(to, to.length * 2);
+            }
+
+            System.arraycopy(fromKey, 0, from, size * width, width);
+            System.arraycopy(toKey, 0, to, size * width, width);
+            size++;
+        }
+
+        @NotNull
+        MemberTable build(@NotNull StringPool.Builder pool) {
+            final int length = size * width;
+            final int[] remappedFrom = new int[length];
+            final int[] remappedTo = new int[length];
+            for (int i = 0; i < length; i++) {
+                remappedFrom[i] = pool.remap(from[i]);
+                remappedTo[i] = pool.remap(to[i]);
+            }
+
+            // Sort the entries by their from key
+            final int[] fromOrder = identity(size);
+            sort(fromOrder, (a, b) -> compare(remappedFrom, width, a, b));
+
+            final int[] sortedFrom = new int[length];
+            final int[] sortedTo = new int[length];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(remappedFrom, fromOrder[i] * width, sortedFrom, i * width, width);
+                System.arraycopy(remappedTo, fromOrder[i] * width, sortedTo, i * width, width);
+            }
+
+            return new MemberTable(width, size, sortedFrom, sortedTo, null);
+        }
+    }
+
+    @NotNull
+    private static int[] identity(int size) {
+        final int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of a set of names in a text in a single pass. The trie is stored
+ * in flat arrays (the children of each state are sorted, so they can be found using a binary search) to keep the memory
+ * usage low even for all names of a full mapping set.
+ * <p>
+ * Package separators are normalized, so {@code net/minecraft/Foo} also matches {@code net.minecraft.Foo}.
+ */
+final class NameAutomaton {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    // Transitions for ASCII characters from the root state are looked up in a table, since most states fall back to it
+    private static final int ROOT_TABLE_SIZE = 128;
+
+    private final int[] childStart;
+    private final char[] childChars;
+    private final int[] childTargets;
+    private final int[] rootTable;
+
+    private final int[] fail;
+    // The pattern that ends in a state, or NONE
+    private final int[] output;
+    // The next state in the failure chain that ends a pattern, or NONE
+    private final int[] outputLink;
+
+    private final int[] patternLengths;
+    private final int maxPatternLength;
+
+    private NameAutomaton(@NotNull int[] childStart, @NotNull char[] childChars, @NotNull int[] childTargets,
+                          @NotNull int[] fail, @NotNull int[] output, @NotNull int[] outputLink,
+                          @NotNull int[] patternLengths) {
+        this.childStart = childStart;
+        this.childChars = childChars;
+        this.childTargets = childTargets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.patternLengths = patternLengths;
+
+        int max = 0;
+        for (int length : patternLengths) {
+            max = Math.max(max, length);
+        }
+        this.maxPatternLength = max;
+
+        this.rootTable = new int[ROOT_TABLE_SIZE];
+        Arrays.fill(rootTable, NONE);
+        for (int i = childStart[ROOT]; i < childStart[ROOT + 1]; i++) {
+            if (childChars[i] < ROOT_TABLE_SIZE) {
+                rootTable[childChars[i]] = childTargets[i];
+            }
+        }
+    }
+
+    @Contract(pure = true)
+    int getMaxPatternLength() {
+        return maxPatternLength;
+    }
+
+    @Contract(pure = true)
+    int getPatternLength(int pattern) {
+        return patternLengths[pattern];
+    }
+
+    /**
+     * Find all occurrences of the patterns in the given text. Matches are reported in the order of their end index.
+     */
+    void findAll(@NotNull CharSequence text, @NotNull MatchHandler handler) {
+        final int length = text.length();
+        int state = ROOT;
+
+        for (int i = 0; i < length; i++) {
+            final char c = normalize(text.charAt(i));
+
+            int next;
+            while ((next = transition(state, c)) == NONE && state != ROOT) {
+                state = fail[state];
+            }
+            state = next == NONE ? ROOT : next;
+
+            for (int s = output[state] != NONE ? state : outputLink[state]; s != NONE; s = outputLink[s]) {
+                final int pattern = output[s];
+                handler.accept(pattern, i + 1 - patternLengths[pattern], i + 1);
+            }
+
+            handler.advance(i + 1);
+        }
+    }
+
+    @Contract(pure = true)
+    private int transition(int state, char c) {
+        if (state == ROOT && c < ROOT_TABLE_SIZE) {
+            return rootTable[c];
+        }
+
+        int low = childStart[state];
+        int high = childStart[state + 1] - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final char midChar = childChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return childTargets[mid];
+            }
+        }
+        return NONE;
+    }
+
+    @Contract(pure = true)
+    private static char normalize(char c) {
+        return c == '.' ? '/' : c;
+    }
+
+    interface MatchHandler {
+
+        /**
+         * Called for every occurrence of a pattern.
+         *
+         * @param pattern The id of the pattern, in the order they were added to the {@link Builder}.
+         * @param start The start index of the match in the text, inclusive.
+         * @param end The end index of the match in the text, exclusive.
+         */
+        void accept(int pattern, int start, int end);
+
+        /**
+         * Called after all matches ending at or before the given index were reported.
+         */
+        void advance(int index);
+    }
+
+    static final class Builder {
+
+        // The trie is built using linked lists of children first, and converted to sorted arrays in build()
+        private int states = 1;
+        private char[] chars = new char[1024];
+        private int[] firstChild = filled(1024);
+        private int[] nextSibling = filled(1024);
+        private int[] output = filled(1024);
+
+        private int patterns;
+        private int[] patternLengths = new int[256];
+
+        /**
+         * Add a pattern to the automaton.
+         *
+         * @return The id of the pattern.
+         */
+        int add(@NotNull String pattern) {
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                state = child(state, normalize(pattern.charAt(i)));
+            }
+
+            if (output[state] != NONE) {
+                // Already added before
+                return output[state];
+            }
+
+            if (patterns == patternLengths.length) {
+                patternLengths = Arrays.copyOf(patternLengths, patterns * 2);
+            }
+            patternLengths[patterns] = pattern.length();
+            output[state] = patterns;
+            return patterns++;
+        }
+
+        private int child(int state, char c) {
+            for (int child = firstChild[state]; child != NONE; child = nextSibling[child]) {
+                if (chars[child] == c) {
+                    return child;
+                }
+            }
+
+            if (states == chars.length) {
+                final int size = states * 2;
+                chars = Arrays.copyOf(chars, size);
+                firstChild = grow(firstChild, size);
+                nextSibling = grow(nextSibling, size);
+                output = grow(output, size);
+            }
+
+            final int child = states++;
+            chars[child] = c;
+            nextSibling[child] = firstChild[state];
+            firstChild[state] = child;
+            return child;
+        }
+
+        @NotNull
+        NameAutomaton build() {
+            // Renumber the states in breadth-first order, so the children of each state are stored next to each other
+            // and the failure links can be computed in the same order
+            final int[] order = new int[states];
+            final int[] newIds = new int[states];
+            final int[] childStart = new int[states + 1];
+            final char[] childChars = new char[states - 1];
+            final int[] childTargets = new int[states - 1];
+
+            int head = 0;
+            int tail = 1;
+            order[0] = ROOT;
+            newIds[ROOT] = 0;
+
+            char[] sortedChars = new char[16];
+            int[] sortedChildren = new int[16];
+
+            while (head < tail) {
+                final int state = order[head];
+                childStart[head] = tail - 1;
+
+                int count = 0;
+                for (int child = firstChild[state]; child != NONE; child = nextSibling[child]) {
+                    if (count == sortedChildren.length) {
+                        sortedChars = Arrays.copyOf(sortedChars, count * 2);
+                        sortedChildren = Arrays.copyOf(sortedChildren, count * 2);
+                    }
+
+                    // Insertion sort, most states only have very few children
+                    int pos = count++;
+                    while (pos > 0 && sortedChars[pos - 1] > chars[child]) {
+                        sortedChars[pos] = sortedChars[pos - 1];
+                        sortedChildren[pos] = sortedChildren[pos - 1];
+                        pos--;
+                    }
+                    sortedChars[pos] = chars[child];
+                    sortedChildren[pos] = child;
+                }
+
+                for (int i = 0; i < count; i++) {
+                    final int child = sortedChildren[i];
+                    newIds[child] = tail;
+                    order[tail] = child;
+                    childChars[tail - 1] = sortedChars[i];
+                    childTargets[tail - 1] = tail;
+                    tail++;
+                }
+
+                head++;
+            }
+            childStart[states] = states - 1;
+
+            final int[] newOutput = new int[states];
+            for (int i = 0; i < states; i++) {
+                newOutput[i] = output[order[i]];
+            }
+
+            // Compute failure and output links, parents are always processed before their children
+            final int[] fail = new int[states];
+            final int[] outputLink = new int[states];
+            fail[ROOT] = ROOT;
+            outputLink[ROOT] = NONE;
+
+            final NameAutomaton partial = new NameAutomaton(childStart, childChars, childTargets, fail, newOutput,
+                outputLink, Arrays.copyOf(patternLengths, patterns));
+
+            for (int state = 0; state < states; state++) {
+                for (int i = childStart[state]; i < childStart[state + 1]; i++) {
+                    final int child = childTargets[i];
+                    final char c = childChars[i];
+
+                    int target = NONE;
+                    if (state != ROOT) {
+                        int f = fail[state];
+                        while ((target = partial.transition(f, c)) == NONE && f != ROOT) {
+                            f = fail[f];
+                        }
+                    }
+
+                    fail[child] = target == NONE ? ROOT : target;
+                    final int failState = fail[child];
+                    outputLink[child] = newOutput[failState] != NONE ? failState : outputLink[failState];
+                }
+            }
+
+            return partial;
+        }
+
+        @NotNull
+        private static int[] filled(int size) {
+            final int[] result = new int[size];
+            Arrays.fill(result, NONE);
+            return result;
+        }
+
+        @NotNull
+        private static int[] grow(@NotNull int[] array, int size) {
+            final int length = array.length;
+            final int[] result = Arrays.copyOf(array, size);
+            Arrays.fill(result, length, size, NONE);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import com.intellij.openapi.application.PathManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps binary snapshots of parsed SRG files in the IDE system directory, so the text mappings only need to be parsed
+ * again when they change. A snapshot is only used if the path, size, modification time and CRC32 of the SRG file still
+ * match the ones it was created from, otherwise (or if it is corrupt) the text file is parsed and the snapshot is
+ * replaced.
+ */
+final class SrgCache {
+
+    private static final int MAGIC = 0x4D435352; // MCSR
+    private static final int VERSION = 2;
+
+    private SrgCache() {
+    }
+
+    @NotNull
+    static SrgTable load(@NotNull Path srgFile) throws IOException {
+        return load(srgFile, getSnapshotPath(srgFile.toAbsolutePath().normalize().toString()));
+    }
+
+    @NotNull
+    static SrgTable load(@NotNull Path srgFile, @NotNull Path snapshot) throws IOException {
+        final Key key = Key.create(srgFile);
+
+        final SrgTable cached = readSnapshot(snapshot, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final SrgTable table = SrgTable.read(srgFile);
+        writeSnapshot(snapshot, key, table);
+        return table;
+    }
+
+    @NotNull
+    private static Path getSnapshotPath(@NotNull String srgPath) {
+        final String name = Integer.toHexString(srgPath.hashCode()) + ".bin";
+        return Paths.get(PathManager.getSystemPath(), "minecraft-dev", "srg", name);
+    }
+
+    /**
+     * Read the snapshot of the given SRG file, without parsing the SRG file if the snapshot can't be used.
+     *
+     * @return The table stored in the snapshot, or {@code null} if it is missing, outdated or corrupt.
+     */
+    @Nullable
+    @TestOnly
+    static SrgTable loadSnapshot(@NotNull Path srgFile, @NotNull Path snapshot) throws IOException {
+        return readSnapshot(snapshot, Key.create(srgFile));
+    }
+
+    @Nullable
+    private static SrgTable readSnapshot(@NotNull Path snapshot, @NotNull Key key) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+
+        try {
+            // The snapshot is read into memory instead of being mapped, because a mapped file can't be replaced on
+            // Windows until the mapping is garbage collected
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.read(buffer)) {
+                // Created by a different version, or for an outdated SRG file
+                return null;
+            }
+
+            final int length = buffer.getInt();
+            final long checksum = buffer.getLong();
+            if (length != buffer.remaining() || checksum != crc32(buffer.slice())) {
+                return null;
+            }
+
+            return SrgTable.read(buffer);
+        } catch (IOException | RuntimeException e) {
+            // The snapshot is corrupt, just parse the SRG file again
+            return null;
+        }
+    }
+
+    private static void writeSnapshot(@NotNull Path snapshot, @NotNull Key key, @NotNull SrgTable table) {
+        try {
+            final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(payload)) {
+                table.write(out);
+            }
+            final byte[] bytes = payload.toByteArray();
+
+            Files.createDirectories(snapshot.getParent());
+
+            // Write to a temporary file first, so other instances never see a partially written snapshot
+            final Path temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream stream = Files.newOutputStream(temp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    key.write(out);
+                    out.writeInt(bytes.length);
+                    out.writeLong(crc32(ByteBuffer.wrap(bytes)));
+                    out.write(bytes);
+                }
+
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ignored) {
+            // The snapshot is only a cache, the mappings were loaded successfully anyway
+        }
+    }
+
+    private static long crc32(@NotNull ByteBuffer buffer) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    private static final class Key {
+
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final long checksum;
+
+        private Key(@NotNull String path, long size, long lastModified, long checksum) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        @NotNull
+        static Key create(@NotNull Path srgFile) throws IOException {
+            final Path path = srgFile.toAbsolutePath().normalize();
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+            final CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+            }
+            final long checksum = crc.getValue();
+
+            return new Key(path.toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), checksum);
+        }
+
+        void write(@NotNull DataOutput out) throws IOException {
+            final byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(pathBytes.length);
+            out.write(pathBytes);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeLong(checksum);
+        }
+
+        /**
+         * Read a key from the buffer and check if it equals this key.
+         */
+        boolean read(@NotNull ByteBuffer buffer) {
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                return false;
+            }
+
+            final byte[] pathBytes = new byte[length];
+            buffer.get(pathBytes);
+
+            return path.equals(new String(pathBytes, StandardCharsets.UTF_8))
+                && buffer.getLong() == size
+                && buffer.getLong() == lastModified
+                && buffer.getLong() == checksum;
+        }
+    }
+}
@@ -13,9 +13,9 @@ package com.demonwav.mcdev.platform.mcp.srg;
 import com.demonwav.mcdev.platform.mcp.util.McpUtil;
 import com.demonwav.mcdev.util.PsiBytecodeUtil;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Lists;
+import com.intellij.ide.plugins.PluginManager;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiField;
@@ -25,49 +25,107 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
- * An immutable instance of the SrgMap API. This can be used to find mappings between
+ * An immutable instance of the SrgMap API. This can be used to find mappings between notch (obfuscated), SRG and MCP
+ * names. The MCP to SRG mappings are loaded first, the notch mappings and the MCP names afterwards in the same
+ * background task. Until then, the lookups using them return {@code null} instead of loading them on the calling thread,
+ * and load them in the background if that task was cancelled.
  */
 public final class SrgMap {
 
-    // Key: MCP
-    // Value: SRG
-    private final BiMap<String, String> classMap = HashBiMap.create();
-    private final BiMap<String, String> fieldMap = HashBiMap.create();
-    private final BiMap<String, String> methodMap = HashBiMap.create();
+    // From: MCP
+    // To: SRG
+    private final LazyValue<SrgTable> mcpToSrg;
+    // From: Notch
+    // To: SRG
+    private final LazyValue<SrgTable> notchToSrg;
+    // From: Notch
+    // To: MCP
+    @Nullable
+    private final LazyValue<SrgTable> notchToMcp;
+    // From: SRG
+    // To: MCP
+    private final LazyValue<McpNameTable> mcpNames;
+
+    private final Map<MappingDirection, SoftReference<SrgRemapper>> remappers = new EnumMap<>(MappingDirection.class);
+    private SoftReference<SrgSearchIndex> searchIndex;
+
+    // srg-mcp.srg is only used if there is no mcp-srg.srg, the lookups are inverted in that case
+    private final boolean invertMcpToSrg;
+
+    public SrgMap(@NotNull Set<String> mappingFiles) {
+        Path mcpSrgFile = null;
+        Path srgMcpFile = null;
+        Path notchSrgFile = null;
+        Path notchMcpFile = null;
+        final List<Path> csvFiles = Lists.newArrayList();
 
-    public SrgMap(@NotNull Set<String> mappingFiles) throws IOException {
-        // currently only read mcpToSrg
         for (String mappingPath : mappingFiles) {
-            File mappingFile = new File(mappingPath);
-            if (mappingFile.getName().equals("mcp-srg.srg")) {
-                final List<String> lines = Files.readAllLines(mappingFile.toPath());
-                for (String line : lines) {
-                    final String[] split = line.split("\\s+");
-                    switch (split[0]) {
-                        case "FD:":
-                            // field
-                            fieldMap.put(split[1], split[2]);
-                            break;
-                        case "MD:":
-                            // method
-                            methodMap.put(split[1] + split[2], split[3] + split[4]);
-                            break;
-                        default:
-                            classMap.put(split[1], split[2]);
-                            break;
-                    }
-                }
-                break;
+            final Path path = Paths.get(mappingPath);
+            switch (path.getFileName().toString()) {
+                case "mcp-srg.srg":
+                    mcpSrgFile = path;
+                    break;
+                case "srg-mcp.srg":
+                    srgMcpFile = path;
+                    break;
+                case "notch-srg.srg":
+                    notchSrgFile = path;
+                    break;
+                case "notch-mcp.srg":
+                    notchMcpFile = path;
+                    break;
+                case "fields.csv":
+                case "methods.csv":
+                case "params.csv":
+                    csvFiles.add(path);
+                    break;
             }
         }
+
+        invertMcpToSrg = mcpSrgFile == null && srgMcpFile != null;
+        mcpToSrg = createSrgTable(invertMcpToSrg ? srgMcpFile : mcpSrgFile);
+        notchToSrg = createSrgTable(notchSrgFile);
+        notchToMcp = notchMcpFile != null ? createSrgTable(notchMcpFile) : null;
+        mcpNames = new LazyValue<>(() -> csvFiles.isEmpty()
+            // Projects imported before the CSV files were collected, use the names of all mapped members instead
+            ? McpNameTable.fromSrgTable(mcpToSrg.get(), !invertMcpToSrg)
+            : McpNameTable.read(csvFiles), McpNameTable.EMPTY);
+    }
+
+    @NotNull
+    private static LazyValue<SrgTable> createSrgTable(@Nullable Path path) {
+        return new LazyValue<>(() -> path != null ? SrgCache.load(path) : SrgTable.EMPTY, SrgTable.EMPTY);
+    }
+
+    /**
+     * Load the MCP to SRG mappings, which are used by most features, so they are ready once they are first needed.
+     */
+    public void preload() {
+        mcpToSrg.get();
+    }
+
+    /**
+     * Load the notch mappings and the MCP names, which are not available before.
+     */
+    public void preloadRemaining() {
+        notchToSrg.get();
+        if (notchToMcp != null) {
+            notchToMcp.get();
+        }
+        mcpNames.get();
     }
 
     // Mapping methods
@@ -77,7 +135,7 @@ public final class SrgMap {
         if (className == null) {
             return null;
         }
-        return classMap.get(className);
+        return mcpToSrg.get().mapClass(className, invertMcpToSrg);
     }
 
     @Nullable
@@ -86,8 +144,7 @@ public final class SrgMap {
         if (className == null) {
             return null;
         }
-        final BiMap<String, String> inverse = classMap.inverse();
-        return inverse.get(className);
+        return mcpToSrg.get().mapClass(className, !invertMcpToSrg);
     }
 
     @Nullable
@@ -96,7 +153,7 @@ public final class SrgMap {
         if (field == null) {
             return null;
         }
-        return fieldMap.get(field);
+        return mcpToSrg.get().mapField(field, invertMcpToSrg);
     }
 
     @Nullable
@@ -105,8 +162,7 @@ public final class SrgMap {
         if (field == null) {
             return null;
         }
-        final BiMap<String , String> inverse = fieldMap.inverse();
-        return inverse.get(field);
+        return mcpToSrg.get().mapField(field, !invertMcpToSrg);
     }
 
     @Nullable
@@ -115,7 +171,7 @@ public final class SrgMap {
         if (method == null) {
             return null;
         }
-        return methodMap.get(method);
+        return mcpToSrg.get().mapMethod(method, invertMcpToSrg);
     }
 
     @Nullable
@@ -124,8 +180,346 @@ public final class SrgMap {
         if (method == null) {
             return null;
         }
-        final BiMap<String, String> inverse = methodMap.inverse();
-        return inverse.get(method);
+        return mcpToSrg.get().mapMethod(method, !invertMcpToSrg);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findClassNotchToSrg(@Nullable String className) {
+        final SrgTable table = notchToSrg.getNow();
+        if (className == null || table == null) {
+            return null;
+        }
+        return table.mapClass(className, false);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findClassSrgToNotch(@Nullable String className) {
+        final SrgTable table = notchToSrg.getNow();
+        if (className == null || table == null) {
+            return null;
+        }
+        return table.mapClass(className, true);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findFieldNotchToSrg(@Nullable String field) {
+        final SrgTable table = notchToSrg.getNow();
+        if (field == null || table == null) {
+            return null;
+        }
+        return table.mapField(field, false);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findFieldSrgToNotch(@Nullable String field) {
+        final SrgTable table = notchToSrg.getNow();
+        if (field == null || table == null) {
+            return null;
+        }
+        return table.mapField(field, true);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findMethodNotchToSrg(@Nullable String method) {
+        final SrgTable table = notchToSrg.getNow();
+        if (method == null || table == null) {
+            return null;
+        }
+        return table.mapMethod(method, false);
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findMethodSrgToNotch(@Nullable String method) {
+        final SrgTable table = notchToSrg.getNow();
+        if (method == null || table == null) {
+            return null;
+        }
+        return table.mapMethod(method, true);
+    }
+
+    /**
+     * Check if the MCP class in the given region of a {@link CharSequence} is mapped, without creating a substring for
+     * it. This is meant for scanning large amounts of text, such as console output, so the class name may use dots
+     * instead of slashes as package separators.
+     */
+    public boolean containsClassMcp(@NotNull CharSequence text, int start, int end) {
+        return mcpToSrg.get().containsClass(text, start, end, invertMcpToSrg);
+    }
+
+    // Classes by prefix
+
+    /**
+     * Get all mapped classes whose SRG name starts with the given prefix. This is a binary search on the sorted
+     * names, so it is fast enough for completion even with a short prefix.
+     *
+     * @param prefix The start of the internal name, e.g. {@code net/minecraft/entity/}.
+     * @return The mappings of the classes, from SRG to MCP, sorted by the SRG name.
+     */
+    @NotNull
+    public Map<String, String> findClassesSrgToMcp(@NotNull String prefix) {
+        return mcpToSrg.get().mapClasses(prefix, !invertMcpToSrg);
+    }
+
+    // Members of a class
+
+    /**
+     * Get all mapped fields of the given MCP class.
+     *
+     * @return The mappings of the fields, from {@code owner/name} in MCP to {@code owner/name} in SRG.
+     */
+    @NotNull
+    public Map<String, String> findFieldsMcpToSrg(@NotNull String className) {
+        return mcpToSrg.get().mapFields(className, invertMcpToSrg);
+    }
+
+    /**
+     * Get all mapped fields of the given SRG class.
+     *
+     * @return The mappings of the fields, from {@code owner/name} in SRG to {@code owner/name} in MCP.
+     */
+    @NotNull
+    public Map<String, String> findFieldsSrgToMcp(@NotNull String className) {
+        return mcpToSrg.get().mapFields(className, !invertMcpToSrg);
+    }
+
+    /**
+     * Get all mapped methods of the given MCP class.
+     *
+     * @return The mappings of the methods, from {@code owner/name(descriptor)} in MCP to SRG.
+     */
+    @NotNull
+    public Map<String, String> findMethodsMcpToSrg(@NotNull String className) {
+        return mcpToSrg.get().mapMethods(className, invertMcpToSrg);
+    }
+
+    /**
+     * Get all mapped methods of the given SRG class.
+     *
+     * @return The mappings of the methods, from {@code owner/name(descriptor)} in SRG to MCP.
+     */
+    @NotNull
+    public Map<String, String> findMethodsSrgToMcp(@NotNull String className) {
+        return mcpToSrg.get().mapMethods(className, !invertMcpToSrg);
+    }
+
+    // Without notch-mcp.srg the notch <-> MCP mappings are resolved through the SRG names
+
+    @Nullable
+    @Contract("null -> null")
+    public String findClassNotchToMcp(@Nullable String className) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return className != null && table != null ? table.mapClass(className, false) : null;
+        }
+        return findClassSrgToMcp(findClassNotchToSrg(className));
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findClassMcpToNotch(@Nullable String className) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return className != null && table != null ? table.mapClass(className, true) : null;
+        }
+        return findClassSrgToNotch(findClassMcpToSrg(className));
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findFieldNotchToMcp(@Nullable String field) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return field != null && table != null ? table.mapField(field, false) : null;
+        }
+        return findFieldSrgToMcp(findFieldNotchToSrg(field));
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findFieldMcpToNotch(@Nullable String field) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return field != null && table != null ? table.mapField(field, true) : null;
+        }
+        return findFieldSrgToNotch(findFieldMcpToSrg(field));
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findMethodNotchToMcp(@Nullable String method) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return method != null && table != null ? table.mapMethod(method, false) : null;
+        }
+        return findMethodSrgToMcp(findMethodNotchToSrg(method));
+    }
+
+    @Nullable
+    @Contract("null -> null")
+    public String findMethodMcpToNotch(@Nullable String method) {
+        if (notchToMcp != null) {
+            final SrgTable table = notchToMcp.getNow();
+            return method != null && table != null ? table.mapMethod(method, true) : null;
+        }
+        return findMethodSrgToNotch(findMethodMcpToSrg(method));
+    }
+
+    /**
+     * Get the MCP name of a SRG field, method or parameter name (e.g. {@code func_71410_x}), using the CSV files of
+     * the MCP mappings. Unlike the other methods this only maps the simple name, without owner or descriptor.
+     */
+    @Nullable
+    @Contract("null -> null")
+    public String findMcpName(@Nullable String srgName) {
+        final McpNameTable names = mcpNames.getNow();
+        if (srgName == null || names == null) {
+            return null;
+        }
+        return names.toMcp(srgName);
+    }
+
+    /**
+     * Get the MCP name of the SRG name in the given region of a {@link CharSequence}, without creating a substring
+     * for it. This is meant for scanning large amounts of text, such as console output.
+     *
+     * @see #findMcpName(String)
+     */
+    @Nullable
+    public String findMcpName(@NotNull CharSequence text, int start, int end) {
+        final McpNameTable names = mcpNames.getNow();
+        return names != null ? names.toMcp(text, start, end) : null;
+    }
+
+    /**
+     * @return True if the MCP names used by {@link #findMcpName(String)} are loaded.
+     */
+    public boolean hasMcpNames() {
+        return mcpNames.getNow() != null;
+    }
+
+    // Remapping
+
+    /**
+     * Get a {@link SrgRemapper} for all mappings in the given direction. Remappers are cached, but may be collected if
+     * memory is low.
+     */
+    @NotNull
+    public SrgRemapper getRemapper(@NotNull MappingDirection direction) {
+        synchronized (remappers) {
+            final SoftReference<SrgRemapper> reference = remappers.get(direction);
+            SrgRemapper remapper = reference != null ? reference.get() : null;
+            if (remapper == null) {
+                final SrgRemapper.Builder builder = new SrgRemapper.Builder(!direction.isFromNotch());
+                accept(direction, builder);
+                if (direction == MappingDirection.SRG_TO_MCP) {
+                    // The CSV files also contain the names of parameters and members of unmapped classes
+                    mcpNames.get().accept(builder::acceptName);
+                }
+
+                remapper = builder.build();
+                remappers.put(direction, new SoftReference<>(remapper));
+            }
+            return remapper;
+        }
+    }
+
+    // Searching
+
+    /**
+     * Get a {@link SrgSearchIndex} over all mapped members. Like the remappers, the index is built on first use and may
+     * be collected if memory is low.
+     */
+    @NotNull
+    public SrgSearchIndex getSearchIndex() {
+        synchronized (remappers) {
+            SrgSearchIndex index = searchIndex != null ? searchIndex.get() : null;
+            if (index == null) {
+                // The index includes the notch names, so wait until they are loaded
+                notchToSrg.get();
+                index = SrgSearchIndex.create(this);
+                searchIndex = new SoftReference<>(index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Pass all mappings in the given direction to the given handler.
+     */
+    void accept(@NotNull MappingDirection direction, @NotNull SrgParser.Handler handler) {
+        switch (direction) {
+            case MCP_TO_SRG:
+                mcpToSrg.get().accept(handler, invertMcpToSrg);
+                break;
+            case SRG_TO_MCP:
+                mcpToSrg.get().accept(handler, !invertMcpToSrg);
+                break;
+            case NOTCH_TO_SRG:
+                notchToSrg.get().accept(handler, false);
+                break;
+            case SRG_TO_NOTCH:
+                notchToSrg.get().accept(handler, true);
+                break;
+            case NOTCH_TO_MCP:
+            case MCP_TO_NOTCH:
+                final boolean inverse = direction == MappingDirection.MCP_TO_NOTCH;
+                if (notchToMcp != null) {
+                    notchToMcp.get().accept(handler, inverse);
+                } else {
+                    // Resolve the MCP names through the SRG names
+                    notchToSrg.get().accept(new SrgParser.Handler() {
+                        @Override
+                        public void acceptClass(@NotNull String notch, @NotNull String srg) {
+                            final String mcp = findClassSrgToMcp(srg);
+                            if (mcp != null) {
+                                accept(inverse, notch, mcp, handler::acceptClass);
+                            }
+                        }
+
+                        @Override
+                        public void acceptField(@NotNull String notch, @NotNull String srg) {
+                            final String mcp = findFieldSrgToMcp(srg);
+                            if (mcp != null) {
+                                accept(inverse, notch, mcp, handler::acceptField);
+                            }
+                        }
+
+                        @Override
+                        public void acceptMethod(@NotNull String notchName, @NotNull String notchDesc,
+                                                 @NotNull String srgName, @NotNull String srgDesc) {
+                            final String mcp = findMethodSrgToMcp(srgName + srgDesc);
+                            if (mcp == null) {
+                                return;
+                            }
+
+                            final int paren = mcp.indexOf('(');
+                            final String mcpName = mcp.substring(0, paren);
+                            final String mcpDesc = mcp.substring(paren);
+                            if (!inverse) {
+                                handler.acceptMethod(notchName, notchDesc, mcpName, mcpDesc);
+                            } else {
+                                handler.acceptMethod(mcpName, mcpDesc, notchName, notchDesc);
+                            }
+                        }
+                    }, false);
+                }
+                break;
+        }
+    }
+
+    private static void accept(boolean inverse, @NotNull String from, @NotNull String to,
+                               @NotNull BiConsumer<String, String> consumer) {
+        if (!inverse) {
+            consumer.accept(from, to);
+        } else {
+            consumer.accept(to, from);
+        }
     }
 
     // Convenience methods
@@ -289,4 +683,73 @@ public final class SrgMap {
         }
         return null;
     }
+
+    private interface Loader<T> {
+        @NotNull
+        T load() throws IOException;
+    }
+
+    /**
+     * Loads a mapping table the first time it is needed. If that fails, the error is reported once and the (empty)
+     * fallback is used instead.
+     */
+    private static final class LazyValue<T> {
+
+        private Loader<T> loader;
+        private final T fallback;
+        private volatile T value;
+        // Whether a background load was scheduled by getNow()
+        private final AtomicBoolean reloading = new AtomicBoolean();
+
+        private LazyValue(@NotNull Loader<T> loader, @NotNull T fallback) {
+            this.loader = loader;
+            this.fallback = fallback;
+        }
+
+        /**
+         * Get the value, loading it on the calling thread if necessary.
+         */
+        @NotNull
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        try {
+                            result = loader.load();
+                        } catch (IOException e) {
+                            PluginManager.processException(e);
+                            result = fallback;
+                        }
+                        value = result;
+                        loader = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Get the value if it was loaded already. Otherwise, it is loaded in the background, in case the load of the
+         * remaining mappings was cancelled or failed.
+         *
+         * @return The value, or {@code null} if it was not loaded yet.
+         */
+        @Nullable
+        T getNow() {
+            final T result = value;
+            if (result == null && reloading.compareAndSet(false, true)) {
+                // Waits for a load that is still running, so this doesn't load the value twice
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                    try {
+                        get();
+                    } finally {
+                        reloading.set(false);
+                    }
+                });
+            }
+            return result;
+        }
+    }
 }
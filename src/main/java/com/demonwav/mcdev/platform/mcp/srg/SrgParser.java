@@ -0,0 +1,157 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import com.intellij.openapi.progress.ProgressManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming parser for SRG mapping files. The file is memory-mapped and scanned byte by byte, splitting each line on
+ * whitespace by hand, so the only objects created per line are the names that are passed on to the {@link Handler}.
+ */
+final class SrgParser {
+
+    private static final int MAX_TOKENS = 5;
+    // How many lines to parse before checking if the parse was cancelled
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final ByteBuffer buffer;
+    private final Handler handler;
+
+    // Start and end offsets of the tokens on the current line
+    private final int[] tokens = new int[MAX_TOKENS * 2];
+    private byte[] scratch = new byte[256];
+
+    private SrgParser(@NotNull ByteBuffer buffer, @NotNull Handler handler) {
+        this.buffer = buffer;
+        this.handler = handler;
+    }
+
+    static void parse(@NotNull Path path, @NotNull Handler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            parse(buffer, handler);
+        }
+    }
+
+    static void parse(@NotNull ByteBuffer buffer, @NotNull Handler handler) {
+        new SrgParser(buffer, handler).parse();
+    }
+
+    private void parse() {
+        final int limit = buffer.limit();
+        int pos = buffer.position();
+        int lines = 0;
+
+        while (pos < limit) {
+            if (++lines % CANCEL_CHECK_INTERVAL == 0) {
+                ProgressManager.checkCanceled();
+            }
+
+            int count = 0;
+
+            // Split a single line into tokens
+            while (pos < limit) {
+                final byte b = buffer.get(pos);
+                if (b == '\n') {
+                    pos++;
+                    break;
+                }
+
+                if (isSeparator(b)) {
+                    pos++;
+                    continue;
+                }
+
+                final int start = pos;
+                do {
+                    pos++;
+                } while (pos < limit && !isSeparator(buffer.get(pos)));
+
+                if (count < MAX_TOKENS) {
+                    tokens[count * 2] = start;
+                    tokens[count * 2 + 1] = pos;
+                }
+                count++;
+            }
+
+            if (count > 0) {
+                handleLine(count);
+            }
+        }
+    }
+
+    private void handleLine(int count) {
+        final int typeStart = tokens[0];
+        if (tokens[1] - typeStart != 3 || buffer.get(typeStart + 2) != ':') {
+            // Not a known line type
+            return;
+        }
+
+        final byte first = buffer.get(typeStart);
+        final byte second = buffer.get(typeStart + 1);
+
+        if (first == 'C' && second == 'L') {
+            if (count >= 3) {
+                handler.acceptClass(token(1), token(2));
+            }
+        } else if (first == 'F' && second == 'D') {
+            if (count >= 3) {
+                handler.acceptField(token(1), token(2));
+            }
+        } else if (first == 'M' && second == 'D') {
+            if (count >= 5) {
+                handler.acceptMethod(token(1), token(2), token(3), token(4));
+            }
+        }
+        // Package mappings (PK:) are not used
+    }
+
+    @NotNull
+    private String token(int index) {
+        final int start = tokens[index * 2];
+        final int length = tokens[index * 2 + 1] - start;
+
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(start + i);
+        }
+
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * Receives the mappings read by the {@link SrgParser}, in the order they appear in the file.
+     */
+    interface Handler {
+
+        void acceptClass(@NotNull String from, @NotNull String to);
+
+        void acceptField(@NotNull String from, @NotNull String to);
+
+        void acceptMethod(@NotNull String fromName, @NotNull String fromDesc, @NotNull String toName, @NotNull String toDesc);
+    }
+}
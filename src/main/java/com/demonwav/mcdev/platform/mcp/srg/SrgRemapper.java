@@ -0,0 +1,355 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remaps all class and member names in a text (e.g. code, stack traces or access transformers) in a single pass.
+ * <p>
+ * Classes and members are found both in their internal form ({@code net/minecraft/entity/Entity/field_70165_t}) and
+ * with dots ({@code net.minecraft.entity.Entity.field_70165_t}). Unqualified member names are only remapped if they
+ * are unambiguous, which is always the case for SRG names, but not for most MCP names. Names only match if they are
+ * not part of a longer identifier, and if several names match at the same position, the longest one is used.
+ * <p>
+ * Classes in the default package (e.g. obfuscated classes like {@code a} or {@code bib}) are too short to be found in a
+ * text reliably, so they are only remapped in type descriptors ({@code La;}) and if a member follows ({@code a.b}).
+ */
+public final class SrgRemapper {
+
+    private static final byte KIND_CLASS = 0;
+    // Classes in the default package, i.e. obfuscated classes
+    private static final byte KIND_UNQUALIFIED_CLASS = 1;
+    private static final byte KIND_MEMBER = 2;
+    private static final byte KIND_NAME = 3;
+
+    // The characters that may precede a class name in a type descriptor, besides the separators
+    private static final String PRIMITIVE_TYPES = "BCDFIJSZ[";
+
+    private final NameAutomaton automaton;
+    private final String[] replacements;
+    private final byte[] kinds;
+
+    private SrgRemapper(@NotNull NameAutomaton automaton, @NotNull String[] replacements, @NotNull byte[] kinds) {
+        this.automaton = automaton;
+        this.replacements = replacements;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Remap all names in the given text.
+     *
+     * @return The remapped text.
+     */
+    @NotNull
+    public String remap(@NotNull CharSequence text) {
+        final Matcher matcher = new Matcher(text);
+        automaton.findAll(text, matcher);
+        return matcher.finish();
+    }
+
+    private final class Matcher implements NameAutomaton.MatchHandler {
+
+        private final CharSequence text;
+        private final StringBuilder result;
+
+        // The longest valid match for each start index that is not decided yet, stored in a ring buffer
+        private final int[] bestPattern;
+        private final int window;
+
+        // The start index that is decided next
+        private int next;
+        // The end of the last replacement, everything before was already appended to the result
+        private int copied;
+
+        private Matcher(@NotNull CharSequence text) {
+            this.text = text;
+            this.result = new StringBuilder(text.length() + 16);
+            this.window = automaton.getMaxPatternLength() + 1;
+            this.bestPattern = new int[window];
+            Arrays.fill(bestPattern, -1);
+        }
+
+        @Override
+        public void accept(int pattern, int start, int end) {
+            if (!isBoundary(pattern, start, end)) {
+                return;
+            }
+
+            final int slot = start % window;
+            final int best = bestPattern[slot];
+            if (best == -1 || automaton.getPatternLength(best) < automaton.getPatternLength(pattern)) {
+                bestPattern[slot] = pattern;
+            }
+        }
+
+        @Override
+        public void advance(int index) {
+            // Matches starting at this index or before cannot be extended anymore
+            decide(index - automaton.getMaxPatternLength());
+        }
+
+        @NotNull
+        String finish() {
+            decide(text.length() - 1);
+            result.append(text, copied, text.length());
+            return result.toString();
+        }
+
+        private void decide(int until) {
+            for (; next <= until; next++) {
+                final int slot = next % window;
+                final int pattern = bestPattern[slot];
+                if (pattern == -1) {
+                    continue;
+                }
+
+                bestPattern[slot] = -1;
+                if (next < copied) {
+                    // Overlaps with the previous replacement
+                    continue;
+                }
+
+                final int end = next + automaton.getPatternLength(pattern);
+                result.append(text, copied, next);
+                appendReplacement(pattern, next, end);
+                copied = end;
+            }
+        }
+
+        @Contract(pure = true)
+        private boolean isBoundary(int pattern, int start, int end) {
+            if (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+                return false;
+            }
+
+            final byte kind = kinds[pattern];
+            final boolean isClass = kind == KIND_CLASS || kind == KIND_UNQUALIFIED_CLASS;
+            if (isClass && start > 0 && text.charAt(start - 1) == 'L' && isDescriptorStart(start - 1, end)) {
+                return true;
+            }
+
+            // Obfuscated class names are too short, they are only remapped if they are followed by a member
+            if (kind == KIND_UNQUALIFIED_CLASS && !isMemberSeparator(end)) {
+                return false;
+            }
+
+            if (start > 0) {
+                final char before = text.charAt(start - 1);
+                if (Character.isJavaIdentifierPart(before)) {
+                    return false;
+                }
+
+                // Qualified names may not start in the middle of a package
+                if (kind != KIND_NAME && (before == '/' || before == '.')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Check if a class name is followed by the name of a member, e.g. {@code a.b} or {@code a/b}.
+         */
+        @Contract(pure = true)
+        private boolean isMemberSeparator(int index) {
+            if (index + 1 >= text.length()) {
+                return false;
+            }
+
+            final char c = text.charAt(index);
+            return (c == '.' || c == '/') && Character.isJavaIdentifierStart(text.charAt(index + 1));
+        }
+
+        /**
+         * Get the separator used after an unqualified class name, e.g. in {@code a.b}.
+         */
+        @Contract(pure = true)
+        private char getSeparatorAfter(int index) {
+            return index < text.length() && text.charAt(index) == '.' ? '.' : '/';
+        }
+
+        /**
+         * Check if a class name is part of a type descriptor, e.g. {@code (Lnet/minecraft/entity/Entity;)V}.
+         */
+        @Contract(pure = true)
+        private boolean isDescriptorStart(int prefix, int end) {
+            if (end >= text.length() || text.charAt(end) != ';') {
+                return false;
+            }
+
+            // Skip primitive and array types before the class, e.g. in (I[Lnet/minecraft/entity/Entity;)V
+            int i = prefix - 1;
+            while (i >= 0 && PRIMITIVE_TYPES.indexOf(text.charAt(i)) != -1) {
+                i--;
+            }
+            return i < 0 || !Character.isJavaIdentifierPart(text.charAt(i));
+        }
+
+        private void appendReplacement(int pattern, int start, int end) {
+            final String replacement = replacements[pattern];
+            if (kinds[pattern] == KIND_NAME) {
+                result.append(replacement);
+                return;
+            }
+
+            // Use the same separators as the original text
+            int lastSeparator = -1;
+            char packageSeparator = 0;
+            for (int i = start; i < end; i++) {
+                final char c = text.charAt(i);
+                if (c == '/' || c == '.') {
+                    if (packageSeparator == 0 && lastSeparator != -1) {
+                        packageSeparator = text.charAt(lastSeparator);
+                    }
+                    lastSeparator = i;
+                }
+            }
+
+            if (kinds[pattern] == KIND_CLASS || kinds[pattern] == KIND_UNQUALIFIED_CLASS) {
+                final char separator = lastSeparator != -1 ? text.charAt(lastSeparator) : getSeparatorAfter(end);
+                result.append(replacement.replace('/', separator));
+                return;
+            }
+
+            final char memberSeparator = text.charAt(lastSeparator);
+            if (packageSeparator == 0) {
+                packageSeparator = memberSeparator;
+            }
+
+            final int replacementSeparator = replacement.lastIndexOf('/');
+            result.append(replacement.substring(0, replacementSeparator).replace('/', packageSeparator));
+            result.append(memberSeparator);
+            result.append(replacement, replacementSeparator + 1, replacement.length());
+        }
+    }
+
+    /**
+     * Collects the mappings for a {@link SrgRemapper}.
+     */
+    static final class Builder implements SrgParser.Handler {
+
+        // Marks names that have several different mappings
+        private static final String AMBIGUOUS = "";
+
+        private final boolean simpleNames;
+
+        private final Map<String, String> classes = new HashMap<>();
+        private final Map<String, String> members = new HashMap<>();
+        private final Map<String, String> names = new HashMap<>();
+
+        /**
+         * @param simpleNames Whether unqualified member names should be remapped as well. This should be disabled for
+         *                    obfuscated names, which are too short to be found in a text reliably.
+         */
+        Builder(boolean simpleNames) {
+            this.simpleNames = simpleNames;
+        }
+
+        @Override
+        public void acceptClass(@NotNull String from, @NotNull String to) {
+            put(classes, from, to);
+        }
+
+        @Override
+        public void acceptField(@NotNull String from, @NotNull String to) {
+            acceptMember(from, to);
+        }
+
+        @Override
+        public void acceptMethod(@NotNull String fromName, @NotNull String fromDesc, @NotNull String toName, @NotNull String toDesc) {
+            // Method descriptors are not part of the text, overloads with different mappings are ambiguous
+            acceptMember(fromName, toName);
+        }
+
+        private void acceptMember(@NotNull String from, @NotNull String to) {
+            put(members, from, to);
+
+            if (simpleNames) {
+                acceptName(from.substring(from.lastIndexOf('/') + 1), to.substring(to.lastIndexOf('/') + 1));
+            }
+        }
+
+        /**
+         * Add a mapping for an unqualified member or parameter name.
+         */
+        void acceptName(@NotNull String from, @NotNull String to) {
+            put(names, from, to);
+        }
+
+        private static void put(@NotNull Map<String, String> map, @NotNull String from, @NotNull String to) {
+            final String existing = map.putIfAbsent(from, to);
+            if (existing != null && !existing.equals(to)) {
+                map.put(from, AMBIGUOUS);
+            }
+        }
+
+        @NotNull
+        SrgRemapper build() {
+            final NameAutomaton.Builder automaton = new NameAutomaton.Builder();
+            final List<String> replacements = new ArrayList<>();
+            final List<Byte> kinds = new ArrayList<>();
+
+            addClasses(automaton, replacements, kinds);
+            add(automaton, replacements, kinds, members, KIND_MEMBER);
+            add(automaton, replacements, kinds, names, KIND_NAME);
+
+            final byte[] kindArray = new byte[kinds.size()];
+            for (int i = 0; i < kindArray.length; i++) {
+                kindArray[i] = kinds.get(i);
+            }
+
+            return new SrgRemapper(automaton.build(), replacements.toArray(new String[replacements.size()]), kindArray);
+        }
+
+        private void addClasses(@NotNull NameAutomaton.Builder automaton, @NotNull List<String> replacements,
+                                @NotNull List<Byte> kinds) {
+            final Map<String, String> qualified = new HashMap<>();
+            final Map<String, String> unqualified = new HashMap<>();
+            for (Map.Entry<String, String> entry : classes.entrySet()) {
+                if (entry.getKey().indexOf('/') != -1) {
+                    qualified.put(entry.getKey(), entry.getValue());
+                } else {
+                    unqualified.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            add(automaton, replacements, kinds, qualified, KIND_CLASS);
+            add(automaton, replacements, kinds, unqualified, KIND_UNQUALIFIED_CLASS);
+        }
+
+        private static void add(@NotNull NameAutomaton.Builder automaton, @NotNull List<String> replacements,
+                                @NotNull List<Byte> kinds, @NotNull Map<String, String> mappings, byte kind) {
+            for (Map.Entry<String, String> entry : mappings.entrySet()) {
+                final String from = entry.getKey();
+                final String to = entry.getValue();
+
+                // Names that stay the same don't need to be part of the automaton
+                if (to.equals(AMBIGUOUS) || from.equals(to)) {
+                    continue;
+                }
+
+                final int pattern = automaton.add(from);
+                if (pattern == replacements.size()) {
+                    replacements.add(to);
+                    kinds.add(kind);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches the fields and methods of a {@link SrgMap} by any part of their MCP, SRG or notch name.
+ * <p>
+ * The index stores the members containing each trigram of their names, so only the members containing all trigrams of
+ * a query need to be checked. Each name is prefixed with two start markers, which also makes queries with less than
+ * three characters possible: these only match the start of names.
+ */
+public final class SrgSearchIndex {
+
+    private static final int GRAM = 3;
+    // The code of the start marker, see code(char)
+    private static final int START = 0;
+
+    // Scores of matches, lower is better: exact matches, then prefixes, then other matches, each by length
+    private static final int SCORE_EXACT = 0;
+    private static final int SCORE_PREFIX = 1;
+    private static final int SCORE_CONTAINS = 2;
+    private static final int MAX_LENGTH = 0xFF;
+    private static final int MAX_SCORE = (SCORE_CONTAINS << 8) | MAX_LENGTH;
+
+    private final Member[] members;
+    // The lowercase MCP, SRG and notch names of each member
+    private final String[][] searchNames;
+
+    // All trigrams with the members containing them, sorted by trigram and member
+    private final int[] trigrams;
+    private final int[] trigramStart;
+    private final int[] trigramMembers;
+
+    private SrgSearchIndex(@NotNull Member[] members) {
+        this.members = members;
+        this.searchNames = new String[members.length][];
+        for (int i = 0; i < members.length; i++) {
+            searchNames[i] = members[i].getNames();
+        }
+
+        // Collect (trigram, member) pairs and sort them, so the members of each trigram are next to each other
+        int count = 0;
+        for (String[] names : searchNames) {
+            for (String name : names) {
+                count += name.length();
+            }
+        }
+
+        final long[] pairs = new long[count];
+        int pairCount = 0;
+        for (int member = 0; member < members.length; member++) {
+            for (String name : searchNames[member]) {
+                for (int i = 1 - GRAM; i + GRAM <= name.length(); i++) {
+                    pairs[pairCount++] = ((long) trigram(name, i) << 32) | member;
+                }
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        final int[] keys = new int[pairCount];
+        final int[] starts = new int[pairCount + 1];
+        final int[] postings = new int[pairCount];
+        int keyCount = 0;
+        int postingCount = 0;
+        for (int i = 0; i < pairCount; i++) {
+            if (i > 0 && pairs[i] == pairs[i - 1]) {
+                // The trigram occurs more than once in the member's names
+                continue;
+            }
+
+            final int key = (int) (pairs[i] >>> 32);
+            if (keyCount == 0 || keys[keyCount - 1] != key) {
+                keys[keyCount] = key;
+                starts[keyCount] = postingCount;
+                keyCount++;
+            }
+            postings[postingCount++] = (int) pairs[i];
+        }
+        starts[keyCount] = postingCount;
+
+        this.trigrams = Arrays.copyOf(keys, keyCount);
+        this.trigramStart = Arrays.copyOf(starts, keyCount + 1);
+        this.trigramMembers = Arrays.copyOf(postings, postingCount);
+    }
+
+    @NotNull
+    static SrgSearchIndex create(@NotNull SrgMap srgMap) {
+        final List<Member> members = new ArrayList<>();
+
+        srgMap.accept(MappingDirection.MCP_TO_SRG, new SrgParser.Handler() {
+            @Override
+            public void acceptClass(@NotNull String from, @NotNull String to) {
+            }
+
+            @Override
+            public void acceptField(@NotNull String mcp, @NotNull String srg) {
+                members.add(new Member(mcp, srg, srgMap.findFieldSrgToNotch(srg), null));
+            }
+
+            @Override
+            public void acceptMethod(@NotNull String mcpName, @NotNull String mcpDesc, @NotNull String srgName, @NotNull String srgDesc) {
+                final String notch = srgMap.findMethodSrgToNotch(srgName + srgDesc);
+                members.add(new Member(mcpName, srgName, notch != null ? notch.substring(0, notch.indexOf('(')) : null, mcpDesc));
+            }
+        });
+
+        return new SrgSearchIndex(members.toArray(new Member[members.size()]));
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return members.length;
+    }
+
+    /**
+     * Find the members with a name containing the given query, ignoring case. Exact matches are returned first, then
+     * members whose name starts with the query, and shorter names are preferred. Queries with less than three
+     * characters only match the start of names.
+     *
+     * @param query The part of the name to search for.
+     * @param limit The maximum number of results.
+     * @return The best matching members.
+     */
+    @NotNull
+    public List<Member> search(@NotNull String query, int limit) {
+        final String lowerQuery = query.trim().toLowerCase(Locale.ENGLISH);
+        if (lowerQuery.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        final int[] candidates = findCandidates(lowerQuery);
+
+        // Score the candidates, removing the ones that don't actually contain the query
+        final int[] scores = new int[candidates.length];
+        final int[] histogram = new int[MAX_SCORE + 2];
+        int count = 0;
+        for (int member : candidates) {
+            final int score = score(searchNames[member], lowerQuery);
+            if (score != -1) {
+                candidates[count] = member;
+                scores[count++] = score;
+                histogram[score + 1]++;
+            }
+        }
+
+        // Find the worst score that is still part of the result, and sort all candidates up to it by score using a
+        // counting sort. Candidates with the same score stay in the order of the mappings.
+        int threshold = 0;
+        int total = histogram[1];
+        while (total < limit && threshold < MAX_SCORE) {
+            total += histogram[++threshold + 1];
+        }
+        for (int score = 1; score <= threshold + 1; score++) {
+            histogram[score] += histogram[score - 1];
+        }
+
+        final int[] sorted = new int[total];
+        for (int i = 0; i < count; i++) {
+            if (scores[i] <= threshold) {
+                sorted[histogram[scores[i]]++] = candidates[i];
+            }
+        }
+
+        final int size = Math.min(total, limit);
+        final List<Member> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(members[sorted[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Find all members that contain every trigram of the query. They still need to be checked for the whole query.
+     */
+    @NotNull
+    private int[] findCandidates(@NotNull String query) {
+        // Short queries are matched using the trigram at the start of the query, which includes the start markers
+        final int first = query.length() >= GRAM ? 0 : query.length() - GRAM;
+
+        int[] result = null;
+        for (int i = first; i + GRAM <= query.length(); i++) {
+            final int key = Arrays.binarySearch(trigrams, trigram(query, i));
+            if (key < 0) {
+                return new int[0];
+            }
+
+            final int start = trigramStart[key];
+            final int end = trigramStart[key + 1];
+            result = result == null ? Arrays.copyOfRange(trigramMembers, start, end) : intersect(result, start, end);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private int[] intersect(@NotNull int[] members, int start, int end) {
+        final int[] result = new int[Math.min(members.length, end - start)];
+        int count = 0;
+
+        int i = 0;
+        int j = start;
+        while (i < members.length && j < end) {
+            final int a = members[i];
+            final int b = trigramMembers[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                result[count++] = a;
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return The best score of the names for the query, or -1 if none of them contains it.
+     */
+    @Contract(pure = true)
+    private static int score(@NotNull String[] names, @NotNull String query) {
+        int best = -1;
+        for (String name : names) {
+            final int index = name.indexOf(query);
+            if (index == -1 || (index != 0 && query.length() < GRAM)) {
+                continue;
+            }
+
+            final int kind = index != 0 ? SCORE_CONTAINS : name.length() == query.length() ? SCORE_EXACT : SCORE_PREFIX;
+            final int score = (kind << 8) | Math.min(name.length(), MAX_LENGTH);
+            if (best == -1 || score < best) {
+                best = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the trigram at the given index of the name. Indexes before the start of the name are start markers.
+     */
+    @Contract(pure = true)
+    private static int trigram(@NotNull String name, int start) {
+        int result = 0;
+        for (int i = start; i < start + GRAM; i++) {
+            result = (result << 6) | (i < 0 ? START : code(name.charAt(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Map characters to 6 bits. All characters that cannot be part of a Java identifier in mappings share a code,
+     * which is fine since every candidate is checked afterwards anyway.
+     */
+    @Contract(pure = true)
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        if (c == '_') {
+            return 37;
+        }
+        if (c == '$') {
+            return 38;
+        }
+        return 39;
+    }
+
+    /**
+     * A mapped field or method.
+     */
+    public static final class Member {
+
+        private final String mcp;
+        private final String srg;
+        private final String notch;
+        private final String descriptor;
+
+        private Member(@NotNull String mcp, @NotNull String srg, @Nullable String notch, @Nullable String descriptor) {
+            this.mcp = mcp;
+            this.srg = srg;
+            this.notch = notch;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * @return The internal name of the owner class in MCP.
+         */
+        @NotNull
+        @Contract(pure = true)
+        public String getOwner() {
+            return mcp.substring(0, mcp.lastIndexOf('/'));
+        }
+
+        @NotNull
+        @Contract(pure = true)
+        public String getMcpName() {
+            return simpleName(mcp);
+        }
+
+        @NotNull
+        @Contract(pure = true)
+        public String getSrgName() {
+            return simpleName(srg);
+        }
+
+        @Nullable
+        @Contract(pure = true)
+        public String getNotchName() {
+            return notch != null ? simpleName(notch) : null;
+        }
+
+        /**
+         * @return The MCP descriptor of the method, or {@code null} if this is a field.
+         */
+        @Nullable
+        @Contract(pure = true)
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        @Contract(pure = true)
+        public boolean isMethod() {
+            return descriptor != null;
+        }
+
+        /**
+         * @return The MCP name of the member in the format used by {@link SrgMap#fromFieldString} and
+         *         {@link SrgMap#fromMethodString}.
+         */
+        @NotNull
+        @Contract(pure = true)
+        public String getMcpString() {
+            return descriptor != null ? mcp + descriptor : mcp;
+        }
+
+        @NotNull
+        private String[] getNames() {
+            final String mcpName = getMcpName().toLowerCase(Locale.ENGLISH);
+            final String srgName = getSrgName().toLowerCase(Locale.ENGLISH);
+            final String notchName = getNotchName();
+            if (notchName == null) {
+                return new String[] {mcpName, srgName};
+            }
+            return new String[] {mcpName, srgName, notchName.toLowerCase(Locale.ENGLISH)};
+        }
+
+        @NotNull
+        @Contract(pure = true)
+        private static String simpleName(@NotNull String name) {
+            return name.substring(name.lastIndexOf('/') + 1);
+        }
+    }
+}
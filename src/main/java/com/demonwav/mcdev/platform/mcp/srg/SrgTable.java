@@ -0,0 +1,334 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class, field and method mappings of a single SRG file. All names are interned into a shared {@link StringPool},
+ * and the mappings are stored in {@link MemberTable}s that can be searched in both directions.
+ */
+final class SrgTable {
+
+    private static final int CLASS_WIDTH = 1;
+    private static final int FIELD_WIDTH = 2;
+    private static final int METHOD_WIDTH = 3;
+
+    static final SrgTable EMPTY = new Builder().build();
+
+    private final StringPool pool;
+    private final MemberTable classes;
+    private final MemberTable fields;
+    private final MemberTable methods;
+
+    private SrgTable(@NotNull StringPool pool, @NotNull MemberTable classes, @NotNull MemberTable fields, @NotNull MemberTable methods) {
+        this.pool = pool;
+        this.classes = classes;
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    @NotNull
+    static SrgTable read(@NotNull Path path) throws IOException {
+        final Builder builder = new Builder();
+        SrgParser.parse(path, builder);
+        return builder.build();
+    }
+
+    /**
+     * Write the binary form of this table, which can be read back using {@link #read(ByteBuffer)} much faster than
+     * parsing the original SRG file.
+     */
+    void write(@NotNull DataOutput out) throws IOException {
+        pool.write(out);
+        classes.write(out);
+        fields.write(out);
+        methods.write(out);
+    }
+
+    @NotNull
+    static SrgTable read(@NotNull ByteBuffer buffer) throws IOException {
+        final StringPool pool = StringPool.read(buffer);
+        final MemberTable classes = MemberTable.read(buffer, CLASS_WIDTH, pool.size());
+        final MemberTable fields = MemberTable.read(buffer, FIELD_WIDTH, pool.size());
+        final MemberTable methods = MemberTable.read(buffer, METHOD_WIDTH, pool.size());
+        return new SrgTable(pool, classes, fields, methods);
+    }
+
+    // Classes: name
+
+    @Nullable
+    @Contract(pure = true)
+    String mapClass(@NotNull String className, boolean inverse) {
+        final int id = pool.indexOf(className);
+        if (id == -1) {
+            return null;
+        }
+
+        if (!inverse) {
+            final int entry = classes.findFrom(id);
+            return entry != -1 ? pool.get(classes.to(entry, 0)) : null;
+        } else {
+            final int entry = classes.findTo(id);
+            return entry != -1 ? pool.get(classes.from(entry, 0)) : null;
+        }
+    }
+
+    /**
+     * Check if the class in the given region of a {@link CharSequence} is mapped, without creating a substring for it.
+     * The name may use dots instead of slashes as package separators.
+     */
+    @Contract(pure = true)
+    boolean containsClass(@NotNull CharSequence text, int start, int end, boolean inverse) {
+        final int id = pool.indexOfInternalName(text, start, end);
+        return id != -1 && (inverse ? classes.findTo(id) : classes.findFrom(id)) != -1;
+    }
+
+    /**
+     * Map all classes whose name starts with the given prefix.
+     *
+     * @param inverse Whether the prefix applies to the {@code to} names instead.
+     * @return The mappings of the classes, sorted by the names the prefix applies to.
+     */
+    @NotNull
+    @Contract(pure = true)
+    Map<String, String> mapClasses(@NotNull String prefix, boolean inverse) {
+        final int[] range = pool.findPrefix(prefix);
+        final int[] entries = inverse ? classes.findAllTo(range[0], range[1]) : classes.findAllFrom(range[0], range[1]);
+
+        final Map<String, String> result = new LinkedHashMap<>(entries.length * 2);
+        for (int entry : entries) {
+            final String from = pool.get(classes.from(entry, 0));
+            final String to = pool.get(classes.to(entry, 0));
+            if (!inverse) {
+                result.put(from, to);
+            } else {
+                result.put(to, from);
+            }
+        }
+        return result;
+    }
+
+    // Fields: owner/name
+
+    @Nullable
+    @Contract(pure = true)
+    String mapField(@NotNull String field, boolean inverse) {
+        final int slash = field.lastIndexOf('/');
+        if (slash == -1) {
+            return null;
+        }
+
+        final int owner = pool.indexOf(field, 0, slash);
+        final int name = pool.indexOf(field, slash + 1, field.length());
+        if (owner == -1 || name == -1) {
+            return null;
+        }
+
+        if (!inverse) {
+            final int entry = fields.findFrom(owner, name);
+            return entry != -1 ? pool.get(fields.to(entry, 0)) + '/' + pool.get(fields.to(entry, 1)) : null;
+        } else {
+            final int entry = fields.findTo(owner, name);
+            return entry != -1 ? pool.get(fields.from(entry, 0)) + '/' + pool.get(fields.from(entry, 1)) : null;
+        }
+    }
+
+    // Methods: owner/name(descriptor)
+
+    @Nullable
+    @Contract(pure = true)
+    String mapMethod(@NotNull String method, boolean inverse) {
+        final int paren = method.indexOf('(');
+        if (paren == -1) {
+            return null;
+        }
+
+        final int slash = method.lastIndexOf('/', paren);
+        if (slash == -1) {
+            return null;
+        }
+
+        final int owner = pool.indexOf(method, 0, slash);
+        final int name = pool.indexOf(method, slash + 1, paren);
+        final int desc = pool.indexOf(method, paren, method.length());
+        if (owner == -1 || name == -1 || desc == -1) {
+            return null;
+        }
+
+        if (!inverse) {
+            final int entry = methods.findFrom(owner, name, desc);
+            return entry != -1 ? methodString(methods.to(entry, 0), methods.to(entry, 1), methods.to(entry, 2)) : null;
+        } else {
+            final int entry = methods.findTo(owner, name, desc);
+            return entry != -1 ? methodString(methods.from(entry, 0), methods.from(entry, 1), methods.from(entry, 2)) : null;
+        }
+    }
+
+    // Members of a class
+
+    /**
+     * Map all fields of the given class.
+     *
+     * @return The mappings of the fields, from {@code owner/name} to {@code owner/name}.
+     */
+    @NotNull
+    @Contract(pure = true)
+    Map<String, String> mapFields(@NotNull String className, boolean inverse) {
+        final int owner = pool.indexOf(className);
+        if (owner == -1) {
+            return Collections.emptyMap();
+        }
+
+        final int[] entries = inverse ? fields.findAllTo(owner) : fields.findAllFrom(owner);
+        final Map<String, String> result = new LinkedHashMap<>(entries.length * 2);
+        for (int entry : entries) {
+            final String from = pool.get(fields.from(entry, 0)) + '/' + pool.get(fields.from(entry, 1));
+            final String to = pool.get(fields.to(entry, 0)) + '/' + pool.get(fields.to(entry, 1));
+            if (!inverse) {
+                result.put(from, to);
+            } else {
+                result.put(to, from);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Map all methods of the given class.
+     *
+     * @return The mappings of the methods, from {@code owner/name(descriptor)} to {@code owner/name(descriptor)}.
+     */
+    @NotNull
+    @Contract(pure = true)
+    Map<String, String> mapMethods(@NotNull String className, boolean inverse) {
+        final int owner = pool.indexOf(className);
+        if (owner == -1) {
+            return Collections.emptyMap();
+        }
+
+        final int[] entries = inverse ? methods.findAllTo(owner) : methods.findAllFrom(owner);
+        final Map<String, String> result = new LinkedHashMap<>(entries.length * 2);
+        for (int entry : entries) {
+            final String from = methodString(methods.from(entry, 0), methods.from(entry, 1), methods.from(entry, 2));
+            final String to = methodString(methods.to(entry, 0), methods.to(entry, 1), methods.to(entry, 2));
+            if (!inverse) {
+                result.put(from, to);
+            } else {
+                result.put(to, from);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pass all mappings of this table to the given handler.
+     *
+     * @param inverse Whether the mappings should be passed in the reverse direction, from {@code to} to {@code from}.
+     */
+    void accept(@NotNull SrgParser.Handler handler, boolean inverse) {
+        for (int entry = 0; entry < classes.size(); entry++) {
+            final String from = pool.get(classes.from(entry, 0));
+            final String to = pool.get(classes.to(entry, 0));
+            handler.acceptClass(inverse ? to : from, inverse ? from : to);
+        }
+
+        for (int entry = 0; entry < fields.size(); entry++) {
+            final String from = pool.get(fields.from(entry, 0)) + '/' + pool.get(fields.from(entry, 1));
+            final String to = pool.get(fields.to(entry, 0)) + '/' + pool.get(fields.to(entry, 1));
+            handler.acceptField(inverse ? to : from, inverse ? from : to);
+        }
+
+        for (int entry = 0; entry < methods.size(); entry++) {
+            final String from = pool.get(methods.from(entry, 0)) + '/' + pool.get(methods.from(entry, 1));
+            final String fromDesc = pool.get(methods.from(entry, 2));
+            final String to = pool.get(methods.to(entry, 0)) + '/' + pool.get(methods.to(entry, 1));
+            final String toDesc = pool.get(methods.to(entry, 2));
+            if (!inverse) {
+                handler.acceptMethod(from, fromDesc, to, toDesc);
+            } else {
+                handler.acceptMethod(to, toDesc, from, fromDesc);
+            }
+        }
+    }
+
+    @NotNull
+    private String methodString(int owner, int name, int desc) {
+        return pool.get(owner) + '/' + pool.get(name) + pool.get(desc);
+    }
+
+    private static final class Builder implements SrgParser.Handler {
+
+        private final StringPool.Builder pool = new StringPool.Builder();
+        private final MemberTable.Builder classes = new MemberTable.Builder(CLASS_WIDTH);
+        private final MemberTable.Builder fields = new MemberTable.Builder(FIELD_WIDTH);
+        private final MemberTable.Builder methods = new MemberTable.Builder(METHOD_WIDTH);
+
+        // Reused for every entry, the member tables copy the ids
+        private final int[] fromKey = new int[METHOD_WIDTH];
+        private final int[] toKey = new int[METHOD_WIDTH];
+
+        @Override
+        public void acceptClass(@NotNull String from, @NotNull String to) {
+            fromKey[0] = pool.intern(from);
+            toKey[0] = pool.intern(to);
+            classes.add(fromKey, toKey);
+        }
+
+        @Override
+        public void acceptField(@NotNull String from, @NotNull String to) {
+            final int fromSlash = from.lastIndexOf('/');
+            final int toSlash = to.lastIndexOf('/');
+            if (fromSlash == -1 || toSlash == -1) {
+                return;
+            }
+
+            fromKey[0] = pool.intern(from.substring(0, fromSlash));
+            fromKey[1] = pool.intern(from.substring(fromSlash + 1));
+            toKey[0] = pool.intern(to.substring(0, toSlash));
+            toKey[1] = pool.intern(to.substring(toSlash + 1));
+            fields.add(fromKey, toKey);
+        }
+
+        @Override
+        public void acceptMethod(@NotNull String fromName, @NotNull String fromDesc, @NotNull String toName, @NotNull String toDesc) {
+            final int fromSlash = fromName.lastIndexOf('/');
+            final int toSlash = toName.lastIndexOf('/');
+            if (fromSlash == -1 || toSlash == -1) {
+                return;
+            }
+
+            fromKey[0] = pool.intern(fromName.substring(0, fromSlash));
+            fromKey[1] = pool.intern(fromName.substring(fromSlash + 1));
+            fromKey[2] = pool.intern(fromDesc);
+            toKey[0] = pool.intern(toName.substring(0, toSlash));
+            toKey[1] = pool.intern(toName.substring(toSlash + 1));
+            toKey[2] = pool.intern(toDesc);
+            methods.add(fromKey, toKey);
+        }
+
+        @NotNull
+        SrgTable build() {
+            final StringPool builtPool = pool.build();
+            return new SrgTable(builtPool, classes.build(pool), fields.build(pool), methods.build(pool));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, sorted pool of distinct strings. Every string is identified by its index in the pool, so mappings can
+ * be stored as plain {@code int} arrays. Since the pool is sorted, comparing two ids gives the same result as
+ * comparing the strings they point to.
+ */
+final class StringPool {
+
+    private final String[] strings;
+
+    private StringPool(@NotNull String[] strings) {
+        this.strings = strings;
+    }
+
+    @Contract(pure = true)
+    int size() {
+        return strings.length;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    String get(int id) {
+        return strings[id];
+    }
+
+    /**
+     * Find the id of the given string.
+     *
+     * @param s The string to look for.
+     * @return The id of the string, or {@code -1} if it is not part of this pool.
+     */
+    @Contract(pure = true)
+    int indexOf(@NotNull String s) {
+        return indexOf(s, 0, s.length());
+    }
+
+    /**
+     * Find the id of the given region of a {@link CharSequence}, without creating a substring for it.
+     *
+     * @param s The sequence containing the string to look for.
+     * @param start The start index of the string in the sequence, inclusive.
+     * @param end The end index of the string in the sequence, exclusive.
+     * @return The id of the string, or {@code -1} if it is not part of this pool.
+     */
+    @Contract(pure = true)
+    int indexOf(@NotNull CharSequence s, int start, int end) {
+        return indexOf(s, start, end, false);
+    }
+
+    /**
+     * Find the id of the internal name in the given region of a {@link CharSequence}, which may use dots instead of
+     * slashes as package separators (e.g. {@code net.minecraft.entity.Entity}).
+     *
+     * @see #indexOf(CharSequence, int, int)
+     */
+    @Contract(pure = true)
+    int indexOfInternalName(@NotNull CharSequence s, int start, int end) {
+        return indexOf(s, start, end, true);
+    }
+
+    @Contract(pure = true)
+    private int indexOf(@NotNull CharSequence s, int start, int end, boolean internalName) {
+        int low = 0;
+        int high = strings.length - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int c = compare(strings[mid], s, start, end, internalName);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Find the ids of all strings starting with the given prefix. Since the pool is sorted, they are next to each other.
+     *
+     * @return The first id and the id after the last one, which are equal if there is no such string.
+     */
+    @NotNull
+    @Contract(pure = true)
+    int[] findPrefix(@NotNull String prefix) {
+        // The first string that is not less than the prefix
+        int low = 0;
+        int high = strings.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (strings[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        final int start = low;
+
+        // The first string after it that doesn't start with the prefix
+        high = strings.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (strings[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return new int[] {start, low};
+    }
+
+    @Contract(pure = true)
+    private static int compare(@NotNull String a, @NotNull CharSequence b, int start, int end, boolean internalName) {
+        final int length = end - start;
+        final int min = Math.min(a.length(), length);
+        for (int i = 0; i < min; i++) {
+            final char c1 = a.charAt(i);
+            char c2 = b.charAt(start + i);
+            if (internalName && c2 == '.') {
+                c2 = '/';
+            }
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return a.length() - length;
+    }
+
+    void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(strings.length);
+        for (String s : strings) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @NotNull
+    static StringPool read(@NotNull ByteBuffer buffer) throws IOException {
+        final int size = buffer.getInt();
+        if (size < 0) {
+            throw new IOException("Invalid string pool size: " + size);
+        }
+
+        final String[] strings = new String[size];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < size; i++) {
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Invalid string length: " + length);
+            }
+
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        return new StringPool(strings);
+    }
+
+    /**
+     * Collects strings in the order they are found and assigns them temporary ids. Once the pool is built, the
+     * temporary ids can be translated to the final (sorted) ids using {@link #remap(int)}.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int[] remap;
+
+        int intern(@NotNull String s) {
+            final Integer id = ids.get(s);
+            if (id != null) {
+                return id;
+            }
+
+            final int newId = strings.size();
+            ids.put(s, newId);
+            strings.add(s);
+            return newId;
+        }
+
+        @NotNull
+        StringPool build() {
+            final String[] sorted = strings.toArray(new String[strings.size()]);
+            Arrays.sort(sorted);
+
+            remap = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                remap[ids.get(sorted[i])] = i;
+            }
+
+            return new StringPool(sorted);
+        }
+
+        @Contract(pure = true)
+        int remap(int id) {
+            return remap[id];
+        }
+    }
+}
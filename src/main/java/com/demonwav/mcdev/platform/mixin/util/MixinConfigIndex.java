@@ -0,0 +1,170 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.ScalarIndexExtension;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indexes the Mixin configuration files (e.g. {@code mixins.example.json}) by the fully qualified names of the Mixin
+ * classes they declare, combining the {@code package} of the configuration with its {@code mixins}, {@code client}
+ * and {@code server} entries.
+ * <p>
+ * Every configuration is also indexed with the key {@link #CONFIG}, so it can be checked whether there are any
+ * configurations at all without going through all keys of the index.
+ */
+public class MixinConfigIndex extends ScalarIndexExtension<String> {
+
+    public static final ID<String, Void> NAME = ID.create("mcdev.mixin.configs");
+
+    public static final String[] MIXIN_LISTS = {"mixins", "client", "server"};
+
+    private static final String CONFIG = "";
+    private static final String PACKAGE = "package";
+
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            final CharSequence text = inputData.getContentAsText();
+            // Don't parse other JSON files, e.g. the refmaps
+            if (!StringUtil.contains(text, PACKAGE)) {
+                return Collections.emptyMap();
+            }
+
+            final JsonElement root;
+            try {
+                root = new JsonParser().parse(text.toString());
+            } catch (JsonParseException e) {
+                // The file is being edited
+                return Collections.emptyMap();
+            }
+
+            final String mixinPackage = getString(root.isJsonObject() ? root.getAsJsonObject().get(PACKAGE) : null);
+            if (mixinPackage == null) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, Void> result = new HashMap<>();
+            result.put(CONFIG, null);
+
+            final JsonObject config = root.getAsJsonObject();
+            for (String list : MIXIN_LISTS) {
+                final JsonElement mixins = config.get(list);
+                if (mixins == null || !mixins.isJsonArray()) {
+                    continue;
+                }
+
+                for (JsonElement mixin : (JsonArray) mixins) {
+                    final String name = getString(mixin);
+                    if (name != null) {
+                        result.put(mixinPackage + '.' + name, null);
+                    }
+                }
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return MixinConfigIndex::isMixinConfig;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    /**
+     * Checks if the given file may be a Mixin configuration. They are recognized by their name, which contains
+     * {@code mixin} by convention, e.g. {@code mixins.example.json}, {@code example.mixins.json} or
+     * {@code example.mixin.json}. The content of other JSON files with such a name (e.g. the refmaps) is checked by the
+     * indexer.
+     */
+    @Contract(pure = true)
+    public static boolean isMixinConfig(@NotNull VirtualFile file) {
+        final String name = file.getName();
+        return StringUtil.endsWithIgnoreCase(name, ".json") && StringUtil.containsIgnoreCase(name, "mixin");
+    }
+
+    /**
+     * @return True if there are any Mixin configurations in the given scope.
+     */
+    public static boolean hasConfigs(@NotNull GlobalSearchScope scope) {
+        return !FileBasedIndex.getInstance().getContainingFiles(NAME, CONFIG, scope).isEmpty();
+    }
+
+    /**
+     * Find the Mixin configurations declaring the given Mixin class.
+     *
+     * @param qualifiedName The binary name of the Mixin class, e.g. {@code com.example.mixin.MixinEntity}.
+     * @param scope The scope to search configurations in.
+     * @return The configuration files.
+     */
+    @NotNull
+    public static Collection<VirtualFile> findConfigs(@NotNull String qualifiedName, @NotNull GlobalSearchScope scope) {
+        if (qualifiedName.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, qualifiedName, scope);
+    }
+
+    @Nullable
+    private static String getString(@Nullable JsonElement element) {
+        if (element == null || !element.isJsonPrimitive()) {
+            return null;
+        }
+
+        final JsonPrimitive primitive = element.getAsJsonPrimitive();
+        return primitive.isString() ? primitive.getAsString() : null;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.util;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiAnnotationMemberValue;
+import com.intellij.psi.PsiArrayInitializerMemberValue;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassObjectAccessExpression;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiLiteralExpression;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.ScalarIndexExtension;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Indexes the Java files containing Mixin classes by the simple names of their targets, so the Mixins of a class can be
+ * found without resolving the targets of every Mixin in the project.
+ * <p>
+ * References can't be resolved while indexing, so only the names written in the {@code value} and {@code targets}
+ * attributes are indexed. Targets which can't be determined without resolving (e.g. constants) are indexed with the
+ * key {@link #UNKNOWN_TARGET} and are always checked.
+ */
+public class MixinTargetIndex extends ScalarIndexExtension<String> {
+
+    public static final ID<String, Void> NAME = ID.create("mcdev.mixin.targets");
+
+    private static final String UNKNOWN_TARGET = "";
+    private static final String MIXIN = "Mixin";
+
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            // Don't build the PSI of files which can't contain a Mixin
+            if (!StringUtil.contains(inputData.getContentAsText(), MIXIN)) {
+                return Collections.emptyMap();
+            }
+
+            final PsiFile file = inputData.getPsiFile();
+            if (!(file instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, Void> result = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) file).getClasses()) {
+                indexClass(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    /**
+     * Find all Mixin classes which target the given class.
+     *
+     * @param target The target class.
+     * @param scope The scope to search Mixins in.
+     * @return The Mixin classes, only the Mixins whose target names match the name of the class are resolved.
+     */
+    @NotNull
+    public static List<PsiClass> findMixins(@NotNull PsiClass target, @NotNull GlobalSearchScope scope) {
+        final String name = target.getName();
+        final String qualifiedName = target.getQualifiedName();
+        if (name == null || qualifiedName == null) {
+            return Collections.emptyList();
+        }
+
+        final FileBasedIndex index = FileBasedIndex.getInstance();
+        final Set<VirtualFile> files = new HashSet<>(index.getContainingFiles(NAME, name, scope));
+        files.addAll(index.getContainingFiles(NAME, UNKNOWN_TARGET, scope));
+
+        final Project project = target.getProject();
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        final List<PsiClass> result = new ArrayList<>();
+        for (VirtualFile file : files) {
+            final PsiFile psiFile = psiManager.findFile(file);
+            if (!(psiFile instanceof PsiJavaFile)) {
+                continue;
+            }
+
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                findMixins(psiClass, qualifiedName, result);
+            }
+        }
+        return result;
+    }
+
+    private static void findMixins(@NotNull PsiClass psiClass, @NotNull String target, @NotNull List<PsiClass> result) {
+        final Collection<PsiClass> targets = MixinUtils.getAllMixedClasses(psiClass).values();
+        if (targets.stream().anyMatch(c -> Objects.equals(c.getQualifiedName(), target))) {
+            result.add(psiClass);
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            findMixins(innerClass, target, result);
+        }
+    }
+
+    private static void indexClass(@NotNull PsiClass psiClass, @NotNull Map<String, Void> result) {
+        final PsiAnnotation annotation = findMixinAnnotation(psiClass);
+        if (annotation != null) {
+            indexTargets(annotation.findDeclaredAttributeValue("value"), result);
+            indexTargets(annotation.findDeclaredAttributeValue("targets"), result);
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            indexClass(innerClass, result);
+        }
+    }
+
+    @Nullable
+    private static PsiAnnotation findMixinAnnotation(@NotNull PsiClass psiClass) {
+        final PsiModifierList modifierList = psiClass.getModifierList();
+        if (modifierList == null) {
+            return null;
+        }
+
+        // The annotation can't be resolved while indexing, so only check its name
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            final PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+            if (reference != null && MIXIN.equals(reference.getReferenceName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static void indexTargets(@Nullable PsiAnnotationMemberValue value, @NotNull Map<String, Void> result) {
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof PsiArrayInitializerMemberValue) {
+            for (PsiAnnotationMemberValue initializer : ((PsiArrayInitializerMemberValue) value).getInitializers()) {
+                indexTargets(initializer, result);
+            }
+            return;
+        }
+
+        final String name = getTargetName(value);
+        result.put(name != null ? name : UNKNOWN_TARGET, null);
+    }
+
+    @Nullable
+    private static String getTargetName(@NotNull PsiAnnotationMemberValue value) {
+        if (value instanceof PsiClassObjectAccessExpression) {
+            final PsiJavaCodeReferenceElement reference =
+                ((PsiClassObjectAccessExpression) value).getOperand().getInnermostComponentReferenceElement();
+            return reference != null ? reference.getReferenceName() : null;
+        } else if (value instanceof PsiLiteralExpression) {
+            final Object literal = ((PsiLiteralExpression) value).getValue();
+            if (!(literal instanceof String)) {
+                return null;
+            }
+
+            // Targets may use the binary name with / or . and $ for inner classes
+            final String target = (String) literal;
+            int start = 0;
+            for (int i = 0; i < target.length(); i++) {
+                final char c = target.charAt(i);
+                if (c == '.' || c == '/' || c == '$') {
+                    start = i + 1;
+                }
+            }
+            return target.substring(start);
+        }
+
+        return null;
+    }
+}
@@ -49,12 +49,16 @@ import com.intellij.psi.impl.source.PsiClassReferenceType;
 import com.intellij.psi.impl.source.tree.ElementType;
 import com.intellij.psi.impl.source.tree.java.PsiClassObjectAccessExpressionImpl;
 import com.intellij.psi.impl.source.tree.java.PsiLiteralExpressionImpl;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.TypeConversionUtil;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -284,15 +288,27 @@ public final class MixinUtils {
      * Get a list of every PsiClass target defined in the Mixin annotation of the given class. Returns an empty list if this is not a Mixin
      * class or if there are no resolvable targets defined in the Mixin annotation.
      *
+     * The targets are cached on the class until the Java structure of the project changes, so they are only resolved once even though
+     * this is called for almost every member of a Mixin class. The returned map is unmodifiable.
+     *
      * @param psiClass The PsiClass to check.
      * @return A map of every attribute target defined in the given class and the PsiClass it relates to.
      */
     @NotNull
     @Contract(pure = true)
     public static Map<PsiElement, PsiClass> getAllMixedClasses(@Nullable PsiClass psiClass) {
-        final Map<PsiElement, PsiClass> map = getAllMixedClassesOfTarget(psiClass);
-        map.putAll(getAllMixedClassesOfValue(psiClass));
-        return map;
+        if (psiClass == null) {
+            return Collections.emptyMap();
+        }
+
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            final Map<PsiElement, PsiClass> map = getAllMixedClassesOfTarget(psiClass);
+            map.putAll(getAllMixedClassesOfValue(psiClass));
+            return CachedValueProvider.Result.create(
+                Collections.unmodifiableMap(map),
+                PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT
+            );
+        });
     }
 
     /**
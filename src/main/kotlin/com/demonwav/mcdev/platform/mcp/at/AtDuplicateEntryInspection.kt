@@ -0,0 +1,117 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry
+import com.intellij.codeInspection.LocalInspectionTool
+import com.intellij.codeInspection.LocalQuickFix
+import com.intellij.codeInspection.ProblemDescriptor
+import com.intellij.codeInspection.ProblemsHolder
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiElementVisitor
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.util.diff.Diff
+import com.intellij.util.diff.FilesTooBigForDiffException
+
+class AtDuplicateEntryInspection : LocalInspectionTool() {
+
+    override fun getStaticDescription(): String? {
+        return "Reports access transformer entries for a class or member which already has an entry in the same file"
+    }
+
+    override fun buildVisitor(holder: ProblemsHolder, isOnTheFly: Boolean): PsiElementVisitor {
+        // Entries aren't necessarily visited in order, so find all duplicates at once
+        val duplicates by lazy(LazyThreadSafetyMode.NONE) { findDuplicates(holder.file) }
+
+        return object : PsiElementVisitor() {
+            override fun visitElement(element: PsiElement?) {
+                if (element !is AtEntry || element !in duplicates) {
+                    return
+                }
+
+                holder.registerProblem(element, "Duplicate access transformer entry", NormalizeFileQuickFix)
+            }
+        }
+    }
+
+    private fun findDuplicates(file: PsiFile): Set<AtEntry> {
+        val keys = HashSet<String>()
+        val result = HashSet<AtEntry>()
+        for (entry in PsiTreeUtil.getChildrenOfTypeAsList(file, AtEntry::class.java)) {
+            val key = AtNormalizer.getKey(entry.text) ?: continue
+            if (!keys.add(key)) {
+                result.add(entry)
+            }
+        }
+        return result
+    }
+
+    private object NormalizeFileQuickFix : LocalQuickFix {
+        override fun getFamilyName() = "Sort and merge all entries"
+
+        override fun applyFix(project: Project, descriptor: ProblemDescriptor) {
+            val file = descriptor.psiElement?.containingFile ?: return
+            val documentManager = PsiDocumentManager.getInstance(project)
+            val document = documentManager.getDocument(file) ?: return
+
+            documentManager.doPostponedOperationsAndUnblockDocument(document)
+            val oldText = document.immutableCharSequence
+            val newText = AtNormalizer.normalize(oldText)
+            if (StringUtil.equals(oldText, newText)) {
+                return
+            }
+
+            // Only replace the lines that were changed, so markers and the caret in the rest of the file are kept
+            val oldLines = splitLines(oldText)
+            val newLines = splitLines(newText)
+            val changes = try {
+                Diff.buildChanges(oldLines, newLines)
+            } catch (e: FilesTooBigForDiffException) {
+                null
+            }
+
+            if (changes == null) {
+                document.replaceString(0, oldText.length, newText)
+            } else {
+                val offsets = IntArray(oldLines.size + 1)
+                for (i in oldLines.indices) {
+                    offsets[i + 1] = offsets[i] + oldLines[i].length
+                }
+
+                // Replace the ranges from the end of the file, so the offsets of the previous ranges stay valid
+                for (change in generateSequence(changes) { it.link }.toList().asReversed()) {
+                    val replacement = newLines.copyOfRange(change.line1, change.line1 + change.inserted).joinToString("")
+                    document.replaceString(offsets[change.line0], offsets[change.line0 + change.deleted], replacement)
+                }
+            }
+            documentManager.commitDocument(document)
+        }
+
+        /**
+         * Split the text into lines, keeping the line separators.
+         */
+        private fun splitLines(text: CharSequence): Array<String> {
+            val lines = ArrayList<String>()
+            var start = 0
+            while (start < text.length) {
+                val separator = text.indexOf('\n', start)
+                val end = if (separator == -1) text.length else separator + 1
+                lines.add(text.substring(start, end))
+                start = end
+            }
+            return lines.toTypedArray()
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry
+import com.demonwav.mcdev.platform.mcp.at.psi.AtMixinUtil
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap
+import com.intellij.codeInspection.LocalInspectionTool
+import com.intellij.codeInspection.ProblemHighlightType
+import com.intellij.codeInspection.ProblemsHolder
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.module.ModuleUtilCore
+import com.intellij.openapi.roots.OrderEnumerator
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.util.Getter
+import com.intellij.openapi.vfs.JarFileSystem
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiElementVisitor
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.jetbrains.concurrency.Promise
+import org.objectweb.asm.Opcodes
+import java.io.File
+
+/**
+ * Checks the access transformer entries against the class files in the Minecraft and Forge jars of the module.
+ */
+class AtTargetInspection : LocalInspectionTool() {
+
+    override fun getStaticDescription(): String? {
+        return "Reports access transformer entries whose target doesn't exist in the Minecraft jar, " +
+            "or which are redundant because the target already has the requested access"
+    }
+
+    override fun buildVisitor(holder: ProblemsHolder, isOnTheFly: Boolean): PsiElementVisitor {
+        val module = ModuleUtilCore.findModuleForPsiElement(holder.file) ?: return PsiElementVisitor.EMPTY_VISITOR
+        val srgMap = AtMixinUtil.getSrgManager(holder.file)?.srgMapNow ?: return PsiElementVisitor.EMPTY_VISITOR
+        val tables = findTables(module) ?: return PsiElementVisitor.EMPTY_VISITOR
+
+        return object : PsiElementVisitor() {
+            override fun visitElement(element: PsiElement?) {
+                if (element is AtEntry) {
+                    checkEntry(element, srgMap, tables, holder)
+                }
+            }
+        }
+    }
+
+    private companion object {
+
+        fun checkEntry(entry: AtEntry, srgMap: SrgMap, tables: List<JarClassTable>, holder: ProblemsHolder) {
+            val className = entry.className.classNameText.replace('.', '/')
+            val classInfo = tables.asSequence().mapNotNull { it.findClass(className) }.firstOrNull()
+            if (classInfo == null) {
+                // Classes of other libraries aren't part of the jars we read
+                if (className.startsWith("net/minecraft")) {
+                    holder.registerProblem(entry.className, "Class $className does not exist",
+                        ProblemHighlightType.LIKE_UNKNOWN_SYMBOL)
+                }
+                return
+            }
+
+            val access: Int
+            val function = entry.function
+            val fieldName = entry.fieldName
+            if (function != null) {
+                access = findMethod(classInfo, className, function.text, srgMap) ?: run {
+                    holder.registerProblem(function, "Method ${function.text} does not exist in $className",
+                        ProblemHighlightType.LIKE_UNKNOWN_SYMBOL)
+                    return
+                }
+            } else if (fieldName != null) {
+                access = findField(classInfo, className, fieldName.fieldNameText, srgMap) ?: run {
+                    holder.registerProblem(fieldName, "Field ${fieldName.fieldNameText} does not exist in $className",
+                        ProblemHighlightType.LIKE_UNKNOWN_SYMBOL)
+                    return
+                }
+            } else if (entry.asterisk != null || className.contains('$')) {
+                // The access of all members isn't checked, and the declared access of nested classes is only
+                // stored in the InnerClasses attribute
+                return
+            } else {
+                access = classInfo.access
+            }
+
+            val keyword = entry.keyword.text
+            val removeFinal = keyword.endsWith("-f")
+            if (getLevel(access) >= getLevel(keyword.removeSuffix("-f")) &&
+                (!removeFinal || access and Opcodes.ACC_FINAL == 0)) {
+                holder.registerProblem(entry, "Access transformer is redundant, the target already has this access",
+                    ProblemHighlightType.LIKE_UNUSED_SYMBOL)
+            }
+        }
+
+        fun findField(classInfo: JarClassTable.ClassInfo, className: String, name: String, srgMap: SrgMap): Int? {
+            classInfo.findField(name)?.let { return it }
+
+            // The jars are usually deobfuscated to MCP names
+            val mcp = srgMap.findFieldSrgToMcp("$className/$name") ?: return null
+            return classInfo.findField(mcp.substring(mcp.lastIndexOf('/') + 1))
+        }
+
+        fun findMethod(classInfo: JarClassTable.ClassInfo, className: String, method: String, srgMap: SrgMap): Int? {
+            classInfo.findMethod(method)?.let { return it }
+
+            val mcp = srgMap.findMethodSrgToMcp("$className/$method") ?: return null
+            return classInfo.findMethod(mcp.substring(mcp.lastIndexOf('/', mcp.indexOf('(')) + 1))
+        }
+
+        fun getLevel(access: Int) = when {
+            access and Opcodes.ACC_PUBLIC != 0 -> 3
+            access and Opcodes.ACC_PROTECTED != 0 -> 2
+            access and Opcodes.ACC_PRIVATE != 0 -> 0
+            else -> 1
+        }
+
+        fun getLevel(keyword: String) = when (keyword) {
+            "public" -> 3
+            "protected" -> 2
+            else -> 0
+        }
+
+        /**
+         * Get the tables of the Minecraft and Forge jars of the module, or `null` if they are still being read. Jars
+         * that can't be read are skipped.
+         */
+        fun findTables(module: Module): List<JarClassTable>? {
+            val project = module.project
+            val cache = JarClassTableCache.instance
+
+            var loaded = true
+            val tables = findJars(module).mapNotNull {
+                val promise = cache.getTable(it, project)
+                when (promise.state) {
+                    Promise.State.FULFILLED -> (promise as Getter<*>).get() as JarClassTable
+                    Promise.State.PENDING -> {
+                        loaded = false
+                        null
+                    }
+                    // The jar can't be read
+                    else -> null
+                }
+            }
+            return if (loaded) tables else null
+        }
+
+        fun findJars(module: Module): List<File> {
+            return CachedValuesManager.getManager(module.project).getCachedValue(module) {
+                val jars = OrderEnumerator.orderEntries(module).librariesOnly().classes().roots
+                    .filter { it.fileSystem is JarFileSystem && it.findFileByRelativePath("net/minecraft") != null }
+                    .mapNotNull { JarFileSystem.getInstance().getVirtualFileForJar(it) }
+                    .map { VfsUtilCore.virtualToIoFile(it) }
+                CachedValueProvider.Result.create(jars, ProjectRootManager.getInstance(module.project))
+            }
+        }
+    }
+}
@@ -10,22 +10,27 @@
 
 package com.demonwav.mcdev.platform.mcp.at
 
-import com.demonwav.mcdev.platform.MinecraftModule
-import com.demonwav.mcdev.platform.mcp.McpModuleType
-import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtAsterisk
 import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry
-import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFieldName
-import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtFunction
-import com.demonwav.mcdev.platform.mcp.srg.SrgMap
-import com.demonwav.mcdev.platform.mcp.util.McpUtil
+import com.demonwav.mcdev.platform.mcp.at.psi.AtMixinUtil
 import com.intellij.codeInspection.LocalInspectionTool
 import com.intellij.codeInspection.ProblemHighlightType
 import com.intellij.codeInspection.ProblemsHolder
-import com.intellij.openapi.module.ModuleUtilCore
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiElementVisitor
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiNamedElement
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor
+import com.intellij.psi.impl.cache.CacheManager
 import com.intellij.psi.search.GlobalSearchScope
-import com.intellij.psi.search.searches.ReferencesSearch
+import com.intellij.psi.search.UsageSearchContext
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import com.intellij.psi.util.PsiTreeUtil
 
 class AtUsageInspection : LocalInspectionTool() {
 
@@ -34,52 +39,103 @@ class AtUsageInspection : LocalInspectionTool() {
     }
 
     override fun buildVisitor(holder: ProblemsHolder, isOnTheFly: Boolean): PsiElementVisitor {
+        // All entries of the file are checked together the first time an entry is visited
+        val unusedEntries by lazy(LazyThreadSafetyMode.NONE) { findUnusedEntries(holder.file) }
+
         return object : PsiElementVisitor() {
             override fun visitElement(element: PsiElement?) {
-                if (element !is AtEntry) {
+                if (element !is AtEntry || element !in unusedEntries) {
                     return
                 }
 
-                val module = ModuleUtilCore.findModuleForPsiElement(element) ?: return
+                holder.registerProblem(
+                    element,
+                    "Access Transformer entry is never used",
+                    ProblemHighlightType.LIKE_UNUSED_SYMBOL
+                )
+            }
+        }
+    }
 
-                val instance = MinecraftModule.getInstance(module) ?: return
+    private companion object {
 
-                val mcpModule = instance.getModuleOfType(McpModuleType.getInstance()) ?: return
+        fun findUnusedEntries(file: PsiFile): Set<AtEntry> {
+            val srgManager = AtMixinUtil.getSrgManager(file) ?: return emptySet()
 
-                val srgMap = mcpModule.srgManager.srgMapNow ?: return
-                val member = if (element.function != null) {
-                    element.function
-                } else if (element.fieldName != null) {
-                    element.fieldName
-                } else {
-                    element.asterisk
-                }
+            // Usages may be added or removed anywhere in the project, and the SRG map may be reloaded
+            return CachedValuesManager.getCachedValue(file) {
+                CachedValueProvider.Result.create(
+                    if (srgManager.srgMapNow != null) computeUnusedEntries(file) else emptySet(),
+                    PsiModificationTracker.MODIFICATION_COUNT,
+                    srgManager.modificationTracker
+                )
+            }
+        }
 
-                if (member is AtAsterisk) {
-                    return
+        private fun computeUnusedEntries(file: PsiFile): Set<AtEntry> {
+            val project = file.project
+
+            // Resolve all entries first, this is cached and shared with the other AT features
+            val entries = HashMap<PsiElement, MutableList<AtEntry>>()
+            val names = HashSet<String>()
+            for (entry in PsiTreeUtil.getChildrenOfTypeAsList(file, AtEntry::class.java)) {
+                val member = entry.resolveMember() as? PsiNamedElement ?: continue
+                if (member is PsiMethod && member.isConstructor) {
+                    // Constructor usages don't contain the name of the method
+                    continue
                 }
 
-                val string = "${McpUtil.replaceDotWithSlash(element.className.classNameText)}/${member?.text}"
+                entries.getOrPut(member) { ArrayList(1) }.add(entry)
+                member.name?.let { names.add(it) }
+            }
 
-                val psi = if (member is AtFunction) {
-                    val methodMcp = srgMap.findMethodSrgToMcp(string) ?: string
+            if (entries.isEmpty()) {
+                return emptySet()
+            }
 
-                    SrgMap.fromMethodString(methodMcp, element.project) as? PsiElement ?: return
-                } else if (member is AtFieldName) {
-                    val fieldMcp = srgMap.findFieldSrgToMcp(string) ?: string
+            // Find all files that may use any of the members using the word index
+            val scope = GlobalSearchScope.projectScope(project)
+            val cacheManager = CacheManager.SERVICE.getInstance(project)
+            val candidateFiles = LinkedHashMap<VirtualFile, MutableSet<String>>()
+            for (name in names) {
+                for (candidate in cacheManager.getVirtualFilesWithWord(name, UsageSearchContext.ANY, scope, true)) {
+                    candidateFiles.getOrPut(candidate) { HashSet() }.add(name)
+                }
+            }
 
-                    SrgMap.fromFieldString(fieldMcp, element.project) as? PsiElement ?: return
-                } else {
-                    return
+            // Check each file only once for all members, and stop as soon as all members are used
+            val psiManager = PsiManager.getInstance(project)
+            for ((candidate, fileNames) in candidateFiles) {
+                if (entries.isEmpty()) {
+                    break
                 }
 
-                val query = ReferencesSearch.search(psi, GlobalSearchScope.projectScope(element.project))
-                query.findFirst() ?:
-                    holder.registerProblem(
-                        element,
-                        "Access Transformer entry is never used",
-                        ProblemHighlightType.LIKE_UNUSED_SYMBOL
-                    )
+                ProgressManager.checkCanceled()
+                val psiFile = psiManager.findFile(candidate) ?: continue
+                psiFile.accept(object : PsiRecursiveElementWalkingVisitor() {
+                    override fun visitElement(element: PsiElement) {
+                        if (element.firstChild == null) {
+                            if (element.text in fileNames) {
+                                markUsed(element.parent, entries)
+                                if (entries.isEmpty()) {
+                                    stopWalking()
+                                }
+                            }
+                            return
+                        }
+
+                        super.visitElement(element)
+                    }
+                })
+            }
+
+            return entries.values.flatMapTo(HashSet()) { it }
+        }
+
+        private fun markUsed(element: PsiElement?, entries: MutableMap<PsiElement, MutableList<AtEntry>>) {
+            for (reference in element?.references ?: return) {
+                val target = reference.resolve() ?: continue
+                entries.remove(target)
             }
         }
     }
@@ -0,0 +1,112 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.ClassVisitor
+import org.objectweb.asm.FieldVisitor
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+import java.io.File
+import java.util.stream.Collectors
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+
+/**
+ * The access flags of all classes in a jar and their members, read straight from the class files. Only the class
+ * headers and member tables are read, the code of the methods is skipped.
+ */
+class JarClassTable private constructor(private val classes: Map<String, ClassInfo>) {
+
+    /**
+     * @param name The internal name of the class, e.g. `net/minecraft/entity/Entity`.
+     */
+    fun findClass(name: String): ClassInfo? = classes[name]
+
+    class ClassInfo(val access: Int, private val members: Map<String, Int>) {
+
+        /**
+         * @return The access flags of the field, or `null` if the class doesn't have a field with the given name.
+         */
+        fun findField(name: String): Int? = members[name]
+
+        /**
+         * @param method The name of the method followed by its descriptor, e.g. `getName()Ljava/lang/String;`.
+         * @return The access flags of the method, or `null` if the class doesn't have the method.
+         */
+        fun findMethod(method: String): Int? = members[method]
+    }
+
+    companion object {
+
+        fun read(file: File): JarClassTable {
+            ZipFile(file).use { zip ->
+                // The classes of other Java versions in multi-release jars are stored in META-INF
+                val entries = zip.entries().asSequence()
+                    .filter { !it.isDirectory && it.name.endsWith(".class") && !it.name.startsWith("META-INF/") }
+                    .toList()
+
+                // Reading the entries is thread-safe, and the class files are independent of each other
+                val classes = entries.parallelStream()
+                    .map { readClass(zip, it) }
+                    .collect(Collectors.toList())
+
+                // The list is in the order of the entries in the jar, if a class is stored twice the first entry is used
+                val result = HashMap<String, ClassInfo>()
+                for (entry in classes) {
+                    if (entry != null) {
+                        result.putIfAbsent(entry.first, entry.second)
+                    }
+                }
+                return JarClassTable(result)
+            }
+        }
+
+        /**
+         * @return The internal name of the class and its access flags, or `null` if the class file is invalid.
+         */
+        private fun readClass(zip: ZipFile, entry: ZipEntry): Pair<String, ClassInfo>? {
+            return try {
+                val reader = zip.getInputStream(entry).use { ClassReader(it) }
+                val visitor = ClassInfoVisitor()
+                reader.accept(visitor, ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
+                reader.className to ClassInfo(visitor.access, visitor.members)
+            } catch (e: RuntimeException) {
+                // ASM doesn't validate the class files, and fails with an IllegalArgumentException for class files of
+                // newer Java versions. Skip the class instead of the whole jar
+                null
+            }
+        }
+    }
+
+    private class ClassInfoVisitor : ClassVisitor(Opcodes.ASM5) {
+
+        var access = 0
+        // Fields are stored by name and methods by name and descriptor, so they can't conflict
+        val members = HashMap<String, Int>()
+
+        override fun visit(version: Int, access: Int, name: String, signature: String?, superName: String?,
+                           interfaces: Array<out String>?) {
+            this.access = access
+        }
+
+        override fun visitField(access: Int, name: String, desc: String, signature: String?, value: Any?): FieldVisitor? {
+            members[name] = access
+            return null
+        }
+
+        override fun visitMethod(access: Int, name: String, desc: String, signature: String?,
+                                 exceptions: Array<out String>?): MethodVisitor? {
+            members[name + desc] = access
+            return null
+        }
+    }
+}
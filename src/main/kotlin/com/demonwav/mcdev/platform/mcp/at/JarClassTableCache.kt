@@ -0,0 +1,134 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import com.google.common.hash.Hashing
+import com.google.common.io.Files
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer
+import com.intellij.ide.plugins.PluginManager
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.project.Project
+import org.jetbrains.concurrency.AsyncPromise
+import org.jetbrains.concurrency.Promise
+import org.jetbrains.concurrency.rejectedPromise
+import org.jetbrains.concurrency.resolvedPromise
+import java.io.File
+import java.io.IOException
+import java.lang.ref.SoftReference
+
+/**
+ * Application-wide cache of [JarClassTable]s. The tables are stored by the hash of the jar, so the same jar is only
+ * read once even if it is used in several modules or projects, or copied to another location. The tables are only
+ * softly referenced, and read again if they were collected.
+ */
+class JarClassTableCache {
+
+    private val files = HashMap<File, FileEntry>()
+    private val pending = HashMap<File, PendingEntry>()
+    private val tables = HashMap<String, SoftReference<JarClassTable>>()
+
+    /**
+     * Get the table of the given jar. If it isn't available yet, the jar is read in the background and the code
+     * analysis of the given project is restarted once the table was read successfully. The returned promise is
+     * rejected if the jar can't be read.
+     */
+    @Synchronized
+    fun getTable(file: File, project: Project): Promise<JarClassTable> {
+        // Only hash the jar again if it was changed
+        val length = file.length()
+        val lastModified = file.lastModified()
+
+        val entry = files[file]
+        if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+            val hash = entry.hash ?: return rejectedPromise("Failed to read $file")
+            val table = tables[hash]?.get()
+            if (table != null) {
+                return resolvedPromise(table)
+            }
+            // The table was collected, read it again
+        }
+
+        val pendingEntry = pending[file]
+        if (pendingEntry != null && pendingEntry.length == length && pendingEntry.lastModified == lastModified) {
+            pendingEntry.projects.add(project)
+            return pendingEntry.table
+        }
+
+        val promise = AsyncPromise<JarClassTable>()
+        val newEntry = PendingEntry(length, lastModified, promise)
+        newEntry.projects.add(project)
+        pending[file] = newEntry
+
+        ApplicationManager.getApplication().executeOnPooledThread {
+            try {
+                val hash = Files.hash(file, Hashing.sha1()).toString()
+                val table = load(hash, file)
+                finish(file, newEntry, hash)
+                promise.setResult(table)
+                newEntry.projects.forEach(::restartAnalysis)
+            } catch (e: IOException) {
+                // Jars of libraries may be missing until they were downloaded
+                finish(file, newEntry, null)
+                promise.setError(e)
+            } catch (e: Throwable) {
+                finish(file, newEntry, null)
+                PluginManager.processException(e)
+                promise.setError(e)
+            }
+        }
+        return promise
+    }
+
+    private fun load(hash: String, file: File): JarClassTable {
+        synchronized(tables) {
+            tables[hash]?.get()?.let { return it }
+        }
+
+        val table = JarClassTable.read(file)
+        synchronized(tables) {
+            tables[hash] = SoftReference(table)
+        }
+        return table
+    }
+
+    /**
+     * Replace the pending entry of the jar with the hash of its content, or `null` if it couldn't be read. The jar
+     * isn't read again until it is changed.
+     */
+    @Synchronized
+    private fun finish(file: File, entry: PendingEntry, hash: String?) {
+        // The jar may have been changed while it was read
+        if (pending[file] === entry) {
+            pending.remove(file)
+            files[file] = FileEntry(entry.length, entry.lastModified, hash)
+        }
+    }
+
+    private fun restartAnalysis(project: Project) {
+        ApplicationManager.getApplication().invokeLater({
+            DaemonCodeAnalyzer.getInstance(project).restart()
+        }, project.disposed)
+    }
+
+    private class FileEntry(val length: Long, val lastModified: Long, val hash: String?)
+
+    private class PendingEntry(val length: Long, val lastModified: Long, val table: Promise<JarClassTable>) {
+        // The projects to restart the code analysis in, once the table was read
+        val projects = HashSet<Project>()
+    }
+
+    companion object {
+        @JvmStatic
+        val instance: JarClassTableCache
+            get() = ServiceManager.getService(JarClassTableCache::class.java)
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.console
+
+import com.demonwav.mcdev.platform.MinecraftModule
+import com.demonwav.mcdev.platform.mcp.McpModuleType
+import com.demonwav.mcdev.platform.mcp.srg.SrgManager
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap
+import com.intellij.openapi.module.ModuleManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+
+/**
+ * Finds the [SrgMap] of the first MCP module in a project. The [SrgManager] is remembered, so the modules only need to
+ * be searched again if it doesn't have a map (anymore). The [SrgManager]s of all MCP modules are only collected again
+ * once the modules or their roots have changed, so projects without any loaded map don't go through all modules for
+ * every line.
+ */
+internal class SrgMapLookup(private val project: Project) {
+
+    @Volatile
+    private var srgManager: SrgManager? = null
+
+    @Volatile
+    private var srgManagers: List<SrgManager> = emptyList()
+    // The modification count of the project roots when the SrgManagers were collected
+    @Volatile
+    private var rootsModificationCount = -1L
+
+    val srgMap: SrgMap?
+        get() {
+            srgManager?.srgMapNow?.let { return it }
+
+            if (project.isDisposed) {
+                return null
+            }
+
+            val modificationCount = ProjectRootManager.getInstance(project).modificationCount
+            if (modificationCount != rootsModificationCount) {
+                srgManagers = findSrgManagers()
+                rootsModificationCount = modificationCount
+            }
+
+            for (manager in srgManagers) {
+                val map = manager.srgMapNow ?: continue
+                srgManager = manager
+                return map
+            }
+
+            return null
+        }
+
+    private fun findSrgManagers(): List<SrgManager> {
+        return ModuleManager.getInstance(project).modules.mapNotNull {
+            MinecraftModule.getInstance(it)?.getModuleOfType(McpModuleType.getInstance())?.srgManager
+        }
+    }
+}
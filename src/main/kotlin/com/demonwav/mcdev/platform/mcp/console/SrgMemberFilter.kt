@@ -0,0 +1,95 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.console
+
+import com.demonwav.mcdev.platform.mcp.util.McpUtil
+import com.intellij.execution.filters.Filter
+import com.intellij.execution.filters.HyperlinkInfo
+import com.intellij.openapi.project.Project
+import com.intellij.util.PsiNavigateUtil
+
+/**
+ * Links fully qualified member names of mapped classes in console output (e.g. `net.minecraft.entity.Entity.onUpdate`,
+ * usually remapped by the [SrgNameInputFilter]) to their declaration. The member is only resolved once the link is
+ * clicked. Stack trace lines are skipped, since they are already handled by the built-in exception filter.
+ */
+class SrgMemberFilter(project: Project) : Filter {
+
+    private val lookup = SrgMapLookup(project)
+
+    override fun applyFilter(line: String, entireLength: Int): Filter.Result? {
+        if (line.indexOf('.') == -1 || isStackTraceLine(line)) {
+            return null
+        }
+
+        val srgMap = lookup.srgMap ?: return null
+        val lineStart = entireLength - line.length
+        var items: MutableList<Filter.ResultItem>? = null
+
+        var i = 0
+        while (i < line.length) {
+            if (!Character.isJavaIdentifierStart(line[i]) || (i > 0 && isNamePart(line[i - 1]))) {
+                i++
+                continue
+            }
+
+            // Find the end of the qualified name and its last separator
+            var end = i
+            var lastDot = -1
+            var dots = 0
+            while (end < line.length && isNamePart(line[end])) {
+                if (line[end] == '.') {
+                    lastDot = end
+                    dots++
+                }
+                end++
+            }
+
+            // A dot at the end belongs to the sentence, not the name
+            if (lastDot == end - 1) {
+                end--
+                dots--
+                lastDot = line.lastIndexOf('.', end - 1).takeIf { it >= i } ?: -1
+            }
+
+            // At least a package, a class and a member. The class is looked up without creating a substring, since
+            // most names in the output are not mapped
+            if (dots >= 2 && lastDot != -1 && srgMap.containsClassMcp(line, i, lastDot)) {
+                val className = line.substring(i, lastDot).replace('.', '/')
+                val info = MemberHyperlinkInfo(className, line.substring(lastDot + 1, end))
+                val list = items ?: ArrayList<Filter.ResultItem>().also { items = it }
+                list.add(Filter.ResultItem(lineStart + i, lineStart + end, info))
+            }
+
+            i = Math.max(end, i + 1)
+        }
+
+        return items?.let { Filter.Result(it) }
+    }
+
+    private fun isNamePart(c: Char) = c == '.' || Character.isJavaIdentifierPart(c)
+
+    private fun isStackTraceLine(line: String): Boolean {
+        val trimmed = line.trimStart()
+        return trimmed.startsWith("at ")
+    }
+
+    private class MemberHyperlinkInfo(private val className: String, private val memberName: String) : HyperlinkInfo {
+        override fun navigate(project: Project) {
+            val psiClass = McpUtil.getClassFromString(className, project) ?: return
+
+            val member = psiClass.findFieldByName(memberName, true)
+                ?: psiClass.findMethodsByName(memberName, true).firstOrNull()
+                ?: psiClass
+            PsiNavigateUtil.navigate(member)
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.console
+
+import com.intellij.execution.filters.ConsoleFilterProvider
+import com.intellij.execution.filters.Filter
+import com.intellij.openapi.project.Project
+
+class SrgMemberFilterProvider : ConsoleFilterProvider {
+    override fun getDefaultFilters(project: Project): Array<Filter> = arrayOf(SrgMemberFilter(project))
+}
@@ -0,0 +1,110 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.console
+
+import com.demonwav.mcdev.platform.mcp.srg.SrgMap
+import com.intellij.execution.filters.InputFilter
+import com.intellij.execution.ui.ConsoleViewContentType
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Pair
+
+/**
+ * Replaces SRG field, method and parameter names (e.g. `func_70071_h_`) in console output with their MCP names, as
+ * long as the mappings are loaded.
+ *
+ * Console output can be very large, so the text is scanned by hand for the SRG prefixes, and the names are looked up
+ * in the [SrgMap] without creating substrings. Output without any SRG names is passed on without any allocations.
+ */
+class SrgNameInputFilter(project: Project) : InputFilter {
+
+    private val lookup = SrgMapLookup(project)
+
+    override fun applyFilter(text: String, contentType: ConsoleViewContentType): List<Pair<String, ConsoleViewContentType>>? {
+        if (!mayContainSrgName(text)) {
+            return null
+        }
+
+        // The MCP names are loaded in the background after the SRG map, don't wait for them on the console thread
+        val srgMap = lookup.srgMap?.takeIf(SrgMap::hasMcpNames) ?: return null
+        val result = remap(srgMap, text) ?: return null
+        return listOf(Pair.create(result, contentType))
+    }
+
+    private fun mayContainSrgName(text: String) = text.indexOf('_') != -1
+
+    private fun remap(srgMap: SrgMap, text: String): String? {
+        var result: StringBuilder? = null
+        var copied = 0
+
+        var i = 0
+        val length = text.length
+        while (i < length) {
+            val c = text[i]
+            if ((c == 'f' || c == 'p') && (i == 0 || !Character.isJavaIdentifierPart(text[i - 1]))) {
+                val end = findSrgNameEnd(text, i)
+                if (end != -1) {
+                    val name = srgMap.findMcpName(text, i, end)
+                    if (name != null) {
+                        val builder = result ?: StringBuilder(length + 16).also { result = it }
+                        builder.append(text, copied, i).append(name)
+                        copied = end
+                    }
+
+                    i = end
+                    continue
+                }
+            }
+
+            i++
+        }
+
+        return result?.append(text, copied, length)?.toString()
+    }
+
+    /**
+     * Check if there is a SRG name (`func_1234_a`, `field_1234_b`, `p_1234_1_` or `p_i1234_1_`) at the given index.
+     *
+     * @return The end index of the name, or -1 if there is none.
+     */
+    private fun findSrgNameEnd(text: String, start: Int): Int {
+        var i = when {
+            text.startsWith(FUNC_PREFIX, start) -> start + FUNC_PREFIX.length
+            text.startsWith(FIELD_PREFIX, start) -> start + FIELD_PREFIX.length
+            text.startsWith(PARAM_PREFIX, start) -> {
+                val next = start + PARAM_PREFIX.length
+                // Constructor parameters
+                if (next < text.length && text[next] == 'i') next + 1 else next
+            }
+            else -> return -1
+        }
+
+        // The SRG id
+        val digits = i
+        while (i < text.length && text[i] in '0'..'9') {
+            i++
+        }
+        if (i == digits || i == text.length || text[i] != '_') {
+            return -1
+        }
+
+        // The rest of the name (the side, or the index of a parameter)
+        while (i < text.length && Character.isJavaIdentifierPart(text[i])) {
+            i++
+        }
+        return i
+    }
+
+    private companion object {
+        const val FUNC_PREFIX = "func_"
+        const val FIELD_PREFIX = "field_"
+        const val PARAM_PREFIX = "p_"
+    }
+}
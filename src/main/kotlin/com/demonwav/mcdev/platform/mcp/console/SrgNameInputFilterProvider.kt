@@ -0,0 +1,19 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.console
+
+import com.intellij.execution.filters.ConsoleInputFilterProvider
+import com.intellij.execution.filters.InputFilter
+import com.intellij.openapi.project.Project
+
+class SrgNameInputFilterProvider : ConsoleInputFilterProvider {
+    override fun getDefaultFilters(project: Project): Array<InputFilter> = arrayOf(SrgNameInputFilter(project))
+}
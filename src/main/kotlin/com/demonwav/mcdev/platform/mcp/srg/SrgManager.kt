@@ -10,13 +10,15 @@
 
 package com.demonwav.mcdev.platform.mcp.srg
 
-import com.intellij.ide.plugins.PluginManager
+import com.intellij.openapi.Disposable
 import com.intellij.openapi.util.Getter
+import com.intellij.openapi.util.SimpleModificationTracker
+import com.intellij.util.Alarm
+import org.jetbrains.concurrency.AsyncPromise
 import org.jetbrains.concurrency.Promise
 import org.jetbrains.concurrency.rejectedPromise
-import org.jetbrains.concurrency.runAsync
 
-class SrgManager {
+class SrgManager : Disposable {
 
     var srgMap: Promise<SrgMap> = rejectedPromise("SRG map not loaded")
         @Synchronized get
@@ -25,19 +27,83 @@ class SrgManager {
     val srgMapNow: SrgMap?
         @Synchronized get() = (srgMap as? Getter<*>)?.get() as SrgMap?
 
+    /**
+     * Changed whenever [srgMapNow] changes, so values computed from the SRG map can be cached until it is reloaded.
+     */
+    val modificationTracker = SimpleModificationTracker()
+
+    // The key of the entry in the SrgMapCache we are currently using
+    private var key: Set<String>? = null
+
+    // Reload requests are delayed a bit, since a Gradle refresh may update the settings several times in a row
+    private val reloadAlarm = Alarm(Alarm.ThreadToUse.POOLED_THREAD, this)
+    // Returned from srgMap until the latest reload request was processed
+    private var pending: AsyncPromise<SrgMap>? = null
+
     @Synchronized
     fun parse(files: Set<String>) {
-        srgMap = if (files.isNotEmpty()) {
-            runAsync {
-                // Load SRG map from files
-                SrgMap(files)
-            }.rejected {
-                PluginManager.processException(it)
-            }
-        } else {
+        reloadAlarm.cancelAllRequests()
+
+        if (files.isEmpty()) {
             // Path to SRG files is unknown
-            rejectedPromise("No mapping data available")
+            val error = "No mapping data available"
+            pending?.setError(error)
+            pending = null
+            srgMap = rejectedPromise(error)
+            releaseKey()
+            modificationTracker.incModificationCount()
+            return
+        }
+
+        // All reload requests until the next one is processed share the same promise
+        val promise = pending ?: AsyncPromise<SrgMap>().also {
+            pending = it
+            srgMap = it
+            modificationTracker.incModificationCount()
+        }
+
+        reloadAlarm.addRequest({ load(files, promise) }, RELOAD_DELAY)
+    }
+
+    @Synchronized
+    private fun load(files: Set<String>, promise: AsyncPromise<SrgMap>) {
+        if (promise !== pending) {
+            // There was a newer request in the meantime
+            return
         }
+        pending = null
+
+        val cache = SrgMapCache.instance
+        val newKey = cache.createKey(files)
+
+        // Acquire the new map before releasing the old one, so it isn't loaded again if the files are the same
+        val map = cache.acquire(newKey)
+        key?.let { cache.release(it) }
+        key = newKey
+
+        map.done {
+            promise.setResult(it)
+            modificationTracker.incModificationCount()
+        }.rejected { promise.setError(it) }
+    }
+
+    private fun releaseKey() {
+        key?.let { SrgMapCache.instance.release(it) }
+        key = null
+    }
+
+    @Synchronized
+    override fun dispose() {
+        pending?.setError("SRG map not loaded")
+        pending = null
+        releaseKey()
+        srgMap = rejectedPromise("SRG map not loaded")
+        modificationTracker.incModificationCount()
+    }
+
+    private companion object {
+        // Milliseconds to wait for further reload requests
+        const val RELOAD_DELAY = 300
     }
 
 }
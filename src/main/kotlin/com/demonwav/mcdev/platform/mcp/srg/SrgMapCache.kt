@@ -0,0 +1,132 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg
+
+import com.intellij.ide.plugins.PluginManager
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.Task
+import com.intellij.openapi.progress.util.ProgressIndicatorBase
+import com.intellij.util.Alarm
+import org.jetbrains.concurrency.AsyncPromise
+import org.jetbrains.concurrency.Promise
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Application-wide cache of [SrgMap]s, so modules (and projects) using the same mappings share a single instance.
+ * Entries are reference counted: every [acquire] must be paired with a [release] of the same key, and the map is
+ * dropped once it is no longer used by any module. Loading a map that is no longer used is cancelled.
+ */
+class SrgMapCache {
+
+    private val entries = HashMap<Set<String>, Entry>()
+    private val progressAlarm = Alarm(Alarm.ThreadToUse.SWING_THREAD, ApplicationManager.getApplication())
+
+    /**
+     * Get the canonical form of the given set of mapping files, which is used as key for the cache.
+     */
+    fun createKey(files: Set<String>): Set<String> = files.mapTo(sortedSetOf()) {
+        try {
+            File(it).canonicalPath
+        } catch (e: IOException) {
+            File(it).absolutePath
+        }
+    }
+
+    @Synchronized
+    fun acquire(key: Set<String>): Promise<SrgMap> {
+        var entry = entries[key]
+        if (entry == null || entry.map.state == Promise.State.REJECTED) {
+            // Try again if loading the map was cancelled or failed before
+            entry = Entry(key, entry?.references ?: 0).apply { load() }
+            entries[key] = entry
+        }
+
+        entry.references++
+        return entry.map
+    }
+
+    @Synchronized
+    fun release(key: Set<String>) {
+        val entry = entries[key] ?: return
+        if (--entry.references == 0) {
+            entries.remove(key)
+            // Nobody is waiting for the map anymore
+            entry.indicator.cancel()
+        }
+    }
+
+    private inner class Entry(val key: Set<String>, var references: Int) {
+        val map = AsyncPromise<SrgMap>()
+        val indicator = ProgressIndicatorBase()
+        private val loaded = CountDownLatch(1)
+
+        fun load() {
+            ApplicationManager.getApplication().executeOnPooledThread {
+                try {
+                    // The map may have been released before we even started
+                    indicator.checkCanceled()
+                    ProgressManager.getInstance().runProcess({
+                        // Load SRG map from files, the map can already be used before the other mappings are loaded
+                        val srgMap = SrgMap(key).apply { preload() }
+                        map.setResult(srgMap)
+                        srgMap.preloadRemaining()
+                    }, indicator)
+                } catch (e: ProcessCanceledException) {
+                    // If only loading the remaining mappings was cancelled, the lookups using them load them again in
+                    // the background (see SrgMap.LazyValue.getNow)
+                    if (map.state == Promise.State.PENDING) {
+                        map.setError("Loading SRG map was cancelled")
+                    }
+                } catch (e: Throwable) {
+                    PluginManager.processException(e)
+                    if (map.state == Promise.State.PENDING) {
+                        map.setError(e)
+                    }
+                } finally {
+                    loaded.countDown()
+                }
+            }
+
+            // Only show progress if loading the mappings takes a while (e.g. if they were not cached yet)
+            progressAlarm.addRequest({
+                if (loaded.count > 0 && !indicator.isCanceled) {
+                    ProgressManager.getInstance().run(object : Task.Backgroundable(null, "Loading MCP mappings", true) {
+                        override fun run(progress: ProgressIndicator) {
+                            progress.isIndeterminate = true
+                            while (!loaded.await(50, TimeUnit.MILLISECONDS)) {
+                                if (progress.isCanceled) {
+                                    indicator.cancel()
+                                    return
+                                }
+                            }
+                        }
+                    })
+                }
+            }, PROGRESS_DELAY)
+        }
+    }
+
+    companion object {
+        // Milliseconds to wait until progress is shown for loading a map
+        private const val PROGRESS_DELAY = 500
+
+        @JvmStatic
+        val instance: SrgMapCache
+            get() = ServiceManager.getService(SrgMapCache::class.java)
+    }
+}
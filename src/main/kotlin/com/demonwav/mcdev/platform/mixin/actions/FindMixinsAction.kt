@@ -11,8 +11,7 @@
 package com.demonwav.mcdev.platform.mixin.actions
 
 import com.demonwav.mcdev.asset.MixinAssets
-import com.demonwav.mcdev.platform.mixin.util.MixinConstants
-import com.demonwav.mcdev.platform.mixin.util.MixinUtils
+import com.demonwav.mcdev.platform.mixin.util.MixinTargetIndex
 import com.demonwav.mcdev.util.findReferencedClass
 import com.demonwav.mcdev.util.fullQualifiedName
 import com.demonwav.mcdev.util.gotoTargetElement
@@ -23,14 +22,13 @@ import com.intellij.openapi.actionSystem.CommonDataKeys.CARET
 import com.intellij.openapi.actionSystem.CommonDataKeys.EDITOR
 import com.intellij.openapi.actionSystem.CommonDataKeys.PROJECT
 import com.intellij.openapi.actionSystem.CommonDataKeys.PSI_FILE
-import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.progress.runBackgroundableTask
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.util.Computable
 import com.intellij.openapi.wm.ToolWindowAnchor
 import com.intellij.openapi.wm.ToolWindowManager
-import com.intellij.psi.JavaPsiFacade
 import com.intellij.psi.PsiClass
 import com.intellij.psi.search.GlobalSearchScope
-import com.intellij.psi.search.searches.AnnotatedElementsSearch
 import com.intellij.ui.content.ContentFactory
 
 class FindMixinsAction : AnAction() {
@@ -46,26 +44,15 @@ class FindMixinsAction : AnAction() {
         val editor = e.getData(EDITOR) ?: return
 
         val element = file.findElementAt(caret.offset) ?: return
-        val classOfElement = element.findReferencedClass()?.qualifiedName ?: return
+        val classOfElement = element.findReferencedClass() ?: return
 
         invokeLater {
             runBackgroundableTask("Searching for Mixins", project, true) run@ { indicator ->
                 indicator.isIndeterminate = true
 
-                val classes = ApplicationManager.getApplication().acquireReadActionLock().use {
-                    val mixinAnnotation = JavaPsiFacade.getInstance(project).findClass(MixinConstants.Annotations.MIXIN,
-                            GlobalSearchScope.allScope(project)) ?: return@use null
-
-                    // Check all classes with the Mixin annotation
-                    val classes = AnnotatedElementsSearch.searchPsiClasses(mixinAnnotation,
-                            GlobalSearchScope.projectScope(project))
-                            .filter {
-                                indicator.text = "Checking ${it.name}..."
-
-                                MixinUtils.getAllMixedClasses(it).values.any { c ->
-                                    c.qualifiedName == classOfElement
-                                }
-                            }
+                val classes = DumbService.getInstance(project).runReadActionInSmartMode(Computable {
+                    // Only the Mixins whose targets have the same name as the class are resolved
+                    val classes = MixinTargetIndex.findMixins(classOfElement, GlobalSearchScope.projectScope(project))
 
                     when (classes.size) {
                         0 -> null
@@ -74,7 +61,7 @@ class FindMixinsAction : AnAction() {
                             // Sort classes
                             classes.sortedBy(PsiClass::fullQualifiedName)
                     }
-                } ?: return@run
+                }) ?: return@run
 
                 invokeLater {
                     if (classes.size == 1) {
@@ -0,0 +1,197 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.insight
+
+import com.demonwav.mcdev.asset.MixinAssets
+import com.demonwav.mcdev.platform.mixin.util.MemberReference
+import com.demonwav.mcdev.platform.mixin.util.MixinConstants
+import com.demonwav.mcdev.platform.mixin.util.MixinTargetIndex
+import com.demonwav.mcdev.platform.mixin.util.memberReference
+import com.demonwav.mcdev.util.constantStringValue
+import com.intellij.codeHighlighting.Pass
+import com.intellij.codeInsight.daemon.GutterIconNavigationHandler
+import com.intellij.codeInsight.daemon.LineMarkerInfo
+import com.intellij.codeInsight.daemon.LineMarkerProviderDescriptor
+import com.intellij.codeInsight.daemon.impl.PsiElementListNavigator
+import com.intellij.icons.AllIcons
+import com.intellij.ide.util.MethodCellRenderer
+import com.intellij.ide.util.PsiClassListCellRenderer
+import com.intellij.openapi.editor.markup.GutterIconRenderer
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.psi.PsiAnnotation
+import com.intellij.psi.PsiAnnotationMemberValue
+import com.intellij.psi.PsiArrayInitializerMemberValue
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiField
+import com.intellij.psi.PsiIdentifier
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+
+/**
+ * Shows the Mixins which target a class, the Mixin methods which overwrite or inject into a method of it, and the
+ * injectors which redirect the accesses of one of its fields. The Mixins are looked up in the [MixinTargetIndex] once
+ * per class and cached until the Java structure of the project changes, so this doesn't search through all Mixins of
+ * the project for every class that is opened.
+ */
+class MixinTargetLineMarkerProvider : LineMarkerProviderDescriptor() {
+
+    override fun getName() = "Mixin target line marker"
+
+    override fun getIcon() = MixinAssets.MIXIN_CLASS_ICON
+
+    override fun getLineMarkerInfo(element: PsiElement): LineMarkerInfo<PsiElement>? = null
+
+    override fun collectSlowLineMarkers(elements: List<PsiElement>, result: MutableCollection<LineMarkerInfo<PsiElement>>) {
+        // Collect the member references of each Mixin only once for all members of a class
+        val referencesByMixin = HashMap<PsiClass, MixinReferences>()
+
+        for (element in elements) {
+            if (element !is PsiIdentifier) {
+                continue
+            }
+
+            ProgressManager.checkCanceled()
+            val parent = element.parent
+            when (parent) {
+                is PsiClass -> {
+                    if (parent.nameIdentifier != element) {
+                        continue
+                    }
+
+                    val mixins = findMixins(parent)
+                    if (mixins.isNotEmpty()) {
+                        result.add(createClassMarker(element, mixins))
+                    }
+                }
+                is PsiMethod -> {
+                    val psiClass = parent.containingClass ?: continue
+                    if (parent.nameIdentifier != element) {
+                        continue
+                    }
+
+                    val methods = findMixins(psiClass).flatMap { mixin ->
+                        referencesByMixin.getOrPut(mixin) { findMemberReferences(mixin) }.methods
+                            .filter { (reference, _) -> reference.match(parent, psiClass) }
+                            .map { it.second }
+                    }
+
+                    if (methods.isNotEmpty()) {
+                        result.add(createMemberMarker(element, methods))
+                    }
+                }
+                is PsiField -> {
+                    val psiClass = parent.containingClass ?: continue
+                    if (parent.nameIdentifier != element) {
+                        continue
+                    }
+
+                    val methods = findMixins(psiClass).flatMap { mixin ->
+                        referencesByMixin.getOrPut(mixin) { findMemberReferences(mixin) }.fields
+                            .filter { (reference, _) -> reference.match(parent, psiClass) }
+                            .map { it.second }
+                    }
+
+                    if (methods.isNotEmpty()) {
+                        result.add(createMemberMarker(element, methods))
+                    }
+                }
+            }
+        }
+    }
+
+    private fun findMixins(psiClass: PsiClass): List<PsiClass> {
+        return CachedValuesManager.getCachedValue(psiClass) {
+            val scope = GlobalSearchScope.projectScope(psiClass.project)
+            CachedValueProvider.Result.create(MixinTargetIndex.findMixins(psiClass, scope),
+                PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT)
+        }
+    }
+
+    private fun createClassMarker(identifier: PsiIdentifier, mixins: List<PsiClass>): LineMarkerInfo<PsiElement> {
+        return LineMarkerInfo<PsiElement>(identifier, identifier.textRange, MixinAssets.MIXIN_CLASS_ICON,
+            Pass.LINE_MARKERS, { "Mixed into by ${mixins.joinToString { it.name ?: "?" }}" },
+            GutterIconNavigationHandler { e, _ ->
+                PsiElementListNavigator.openTargets(e, mixins.filter(PsiClass::isValid).toTypedArray(),
+                    "Choose Mixin of ${(identifier.parent as? PsiClass)?.name}", null, PsiClassListCellRenderer.INSTANCE)
+            }, GutterIconRenderer.Alignment.RIGHT)
+    }
+
+    private fun createMemberMarker(identifier: PsiIdentifier, methods: List<PsiMethod>): LineMarkerInfo<PsiElement> {
+        return LineMarkerInfo<PsiElement>(identifier, identifier.textRange, AllIcons.Gutter.OverridenMethod,
+            Pass.LINE_MARKERS, { "Mixed into by ${methods.joinToString { "${it.containingClass?.name}.${it.name}" }}" },
+            GutterIconNavigationHandler { e, _ ->
+                PsiElementListNavigator.openTargets(e, methods.filter(PsiMethod::isValid).toTypedArray(),
+                    "Choose Mixin method", null, MethodCellRenderer(true))
+            }, GutterIconRenderer.Alignment.RIGHT)
+    }
+
+    /**
+     * Get the references to target methods of all methods which overwrite or inject into a method of the targets, and
+     * the references to the fields whose accesses are targeted by an injector (e.g. `@Redirect` with a `FIELD`
+     * injection point).
+     */
+    private fun findMemberReferences(mixin: PsiClass): MixinReferences {
+        val methods = ArrayList<Pair<MemberReference, PsiMethod>>()
+        val fields = ArrayList<Pair<MemberReference, PsiMethod>>()
+        for (method in mixin.methods) {
+            val modifierList = method.modifierList
+            if (modifierList.findAnnotation(MixinConstants.Annotations.OVERWRITE) != null) {
+                methods.add(method.memberReference to method)
+                continue
+            }
+
+            for (annotation in modifierList.annotations) {
+                if (annotation.qualifiedName !in MixinConstants.Annotations.METHOD_INJECTORS) {
+                    continue
+                }
+
+                forEachString(annotation.findDeclaredAttributeValue("method")) {
+                    MemberReference.parse(it)?.let { methods.add(it to method) }
+                }
+
+                forEachAnnotation(annotation.findDeclaredAttributeValue("at")) { at ->
+                    if (at.findDeclaredAttributeValue("value")?.constantStringValue == FIELD_INJECTION_POINT) {
+                        forEachString(at.findDeclaredAttributeValue("target")) {
+                            MemberReference.parse(it)?.let { fields.add(it to method) }
+                        }
+                    }
+                }
+            }
+        }
+        return MixinReferences(methods, fields)
+    }
+
+    private inline fun forEachAnnotation(value: PsiAnnotationMemberValue?, action: (PsiAnnotation) -> Unit) {
+        when (value) {
+            is PsiAnnotation -> action(value)
+            is PsiArrayInitializerMemberValue -> value.initializers.forEach { if (it is PsiAnnotation) action(it) }
+        }
+    }
+
+    private inline fun forEachString(value: PsiAnnotationMemberValue?, action: (String) -> Unit) {
+        when (value) {
+            null -> return
+            is PsiArrayInitializerMemberValue -> value.initializers.forEach { action(it.constantStringValue) }
+            else -> action(value.constantStringValue)
+        }
+    }
+
+    private class MixinReferences(val methods: List<Pair<MemberReference, PsiMethod>>,
+                                  val fields: List<Pair<MemberReference, PsiMethod>>)
+
+    private companion object {
+        const val FIELD_INJECTION_POINT = "FIELD"
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.inspection
+
+import com.demonwav.mcdev.platform.mixin.util.MixinConfigIndex
+import com.demonwav.mcdev.platform.mixin.util.MixinConstants.Annotations.MIXIN
+import com.demonwav.mcdev.platform.mixin.util.MixinUtils
+import com.intellij.codeInspection.LocalInspectionTool
+import com.intellij.codeInspection.ProblemHighlightType
+import com.intellij.codeInspection.ProblemsHolder
+import com.intellij.json.psi.JsonArray
+import com.intellij.json.psi.JsonFile
+import com.intellij.json.psi.JsonObject
+import com.intellij.json.psi.JsonStringLiteral
+import com.intellij.psi.PsiElementVisitor
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.ClassUtil
+
+class MixinConfigEntryInspection : LocalInspectionTool() {
+
+    override fun getStaticDescription() = "Reports entries in Mixin configurations which don't refer to an existing Mixin class"
+
+    override fun buildVisitor(holder: ProblemsHolder, isOnTheFly: Boolean): PsiElementVisitor {
+        val file = holder.file
+        val virtualFile = file.virtualFile
+        if (file !is JsonFile || virtualFile == null || !MixinConfigIndex.isMixinConfig(virtualFile)
+                || !MixinUtils.isMixinModule(file)) {
+            return PsiElementVisitor.EMPTY_VISITOR
+        }
+
+        return Visitor(holder)
+    }
+
+    private class Visitor(private val holder: ProblemsHolder) : PsiElementVisitor() {
+
+        override fun visitFile(file: PsiFile) {
+            val config = (file as? JsonFile)?.topLevelValue as? JsonObject ?: return
+            val mixinPackage = (config.findProperty("package")?.value as? JsonStringLiteral)?.value ?: return
+            val scope = file.resolveScope
+
+            for (list in MixinConfigIndex.MIXIN_LISTS) {
+                val mixins = config.findProperty(list)?.value as? JsonArray ?: continue
+                for (entry in mixins.valueList) {
+                    val name = (entry as? JsonStringLiteral)?.value ?: continue
+
+                    // Only the class with the declared name is looked up, without going through the other classes
+                    val psiClass = ClassUtil.findPsiClass(file.manager, "$mixinPackage.$name", null, false, scope)
+                    if (psiClass == null) {
+                        holder.registerProblem(entry, "Cannot resolve Mixin class '$name'", ProblemHighlightType.LIKE_UNKNOWN_SYMBOL)
+                    } else if (psiClass.modifierList?.findAnnotation(MIXIN) == null) {
+                        holder.registerProblem(entry, "'${psiClass.name}' is not a Mixin class")
+                    }
+                }
+            }
+        }
+
+    }
+
+}
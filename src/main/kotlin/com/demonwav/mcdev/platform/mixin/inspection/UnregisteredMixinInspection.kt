@@ -0,0 +1,49 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.inspection
+
+import com.demonwav.mcdev.platform.mixin.util.MixinConfigIndex
+import com.demonwav.mcdev.platform.mixin.util.MixinConstants.Annotations.MIXIN
+import com.demonwav.mcdev.util.fullQualifiedName
+import com.intellij.codeInspection.ProblemsHolder
+import com.intellij.openapi.module.ModuleUtilCore
+import com.intellij.psi.JavaElementVisitor
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiElementVisitor
+import com.intellij.psi.search.GlobalSearchScope
+
+class UnregisteredMixinInspection : MixinInspection() {
+
+    override fun getStaticDescription() = "Reports Mixin classes which are not declared in any Mixin configuration, " +
+            "so they are never applied"
+
+    override fun buildVisitor(holder: ProblemsHolder): PsiElementVisitor = Visitor(holder)
+
+    private class Visitor(private val holder: ProblemsHolder) : JavaElementVisitor() {
+
+        override fun visitClass(psiClass: PsiClass) {
+            psiClass.modifierList?.findAnnotation(MIXIN) ?: return
+            val identifier = psiClass.nameIdentifier ?: return
+
+            // The configuration must be in the module of the Mixin or one of its dependencies. Mixins can also be added
+            // without a configuration file, so only check them if there are any
+            val module = ModuleUtilCore.findModuleForPsiElement(psiClass) ?: return
+            val scope = GlobalSearchScope.moduleWithDependenciesScope(module)
+            if (!MixinConfigIndex.hasConfigs(scope) || MixinConfigIndex.findConfigs(psiClass.fullQualifiedName, scope).isNotEmpty()) {
+                return
+            }
+
+            holder.registerProblem(identifier, "Mixin is not declared in any Mixin configuration")
+        }
+
+    }
+
+}
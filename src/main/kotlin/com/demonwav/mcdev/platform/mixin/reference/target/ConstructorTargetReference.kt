@@ -17,48 +17,17 @@ import com.intellij.codeInsight.completion.JavaLookupElementBuilder
 import com.intellij.codeInsight.lookup.LookupElementBuilder
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiElement
-import com.intellij.psi.PsiNewExpression
 
 object ConstructorTargetReference : TargetReference.Handler<PsiClass>() {
 
-    override fun createFindUsagesVisitor(context: PsiElement, targetClass: PsiClass, checkOnly: Boolean): CollectVisitor<out PsiElement>? {
-        val name = context.constantStringValue.replace('/', '.')
-        return FindUsagesVisitor(name, checkOnly)
+    override fun find(context: PsiElement, table: InjectionPointTable): List<PsiElement>? {
+        return table.findConstructions(context.constantStringValue.replace('/', '.'))
     }
 
-    override fun createCollectUsagesVisitor(): CollectVisitor<PsiClass> = CollectUsagesVisitor()
+    override fun collect(table: InjectionPointTable): Collection<PsiClass> = table.classes
 
     override fun createLookup(targetClass: PsiClass, element: PsiClass): LookupElementBuilder {
         return JavaLookupElementBuilder.forClass(element, element.internalName)
                 .withPresentableText(element.shortName)
     }
-
-    private fun resolveConstructedClass(expression: PsiNewExpression): PsiClass? {
-        return expression.anonymousClass ?: expression.classReference?.resolve() as PsiClass
-    }
-
-    private class FindUsagesVisitor(private val qualifiedName: String, checkOnly: Boolean) : CollectVisitor<PsiNewExpression>(checkOnly) {
-
-        override fun visitNewExpression(expression: PsiNewExpression) {
-            val psiClass = resolveConstructedClass(expression)
-            if (psiClass != null && psiClass.qualifiedName == this.qualifiedName) {
-                addResult(expression)
-            }
-
-            super.visitNewExpression(expression)
-        }
-
-    }
-
-    private class CollectUsagesVisitor : CollectVisitor<PsiClass>(false) {
-
-        override fun visitNewExpression(expression: PsiNewExpression) {
-            val psiClass = resolveConstructedClass(expression)
-            if (psiClass != null) {
-                addResult(psiClass)
-            }
-
-            super.visitNewExpression(expression)
-        }
-    }
 }
@@ -0,0 +1,310 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.reference.target
+
+import com.demonwav.mcdev.platform.mixin.util.MemberReference
+import com.demonwav.mcdev.platform.mixin.util.findField
+import com.demonwav.mcdev.platform.mixin.util.findMethods
+import com.demonwav.mcdev.platform.mixin.util.getQualifiedMemberReference
+import com.demonwav.mcdev.util.descriptor
+import com.demonwav.mcdev.util.internalName
+import com.intellij.psi.CommonClassNames
+import com.intellij.psi.JavaPsiFacade
+import com.intellij.psi.JavaRecursiveElementWalkingVisitor
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiClassType
+import com.intellij.psi.PsiCompiledElement
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiField
+import com.intellij.psi.PsiForeachStatement
+import com.intellij.psi.PsiLiteral
+import com.intellij.psi.PsiManager
+import com.intellij.psi.PsiMember
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiMethodCallExpression
+import com.intellij.psi.PsiMethodReferenceExpression
+import com.intellij.psi.PsiNewExpression
+import com.intellij.psi.PsiReference
+import com.intellij.psi.PsiReferenceExpression
+import com.intellij.psi.PsiType
+import com.intellij.psi.PsiVariable
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.ClassUtil
+import com.intellij.psi.util.PsiModificationTracker
+
+/**
+ * Contains all possible injection points in the body of a target method, together with the qualified member
+ * references they match. The table is built in a single pass over the method body and cached until the method
+ * changes, so all `@At` annotations targeting the same method can be resolved with hash lookups.
+ *
+ * If the target method is only available in compiled form, the injection points are read from the instructions in the
+ * class file instead (see [MethodInstructionsCache]). There are no source elements for them, so they resolve to the
+ * referenced members and classes instead.
+ */
+class InjectionPointTable private constructor(private val targetClass: PsiClass) {
+
+    private val project = targetClass.project
+
+    /**
+     * `INVOKE` and `INVOKE_ASSIGN`: The method calls (including constructor calls) in the method.
+     */
+    val methodCalls = MemberInjectionPoints(PsiMethod::class.java)
+
+    /**
+     * `INVOKE_STRING`: The calls to methods with a single constant [String] argument.
+     */
+    val constantStringMethodCalls = MemberInjectionPoints(PsiMethod::class.java)
+
+    /**
+     * `FIELD`: The field accesses in the method.
+     */
+    val fieldAccesses = MemberInjectionPoints(PsiField::class.java)
+
+    private val constructions = HashMap<String, MutableList<PsiElement>>()
+    private val constructedClasses = LinkedHashSet<PsiClass>()
+    private val compiledConstructions = LinkedHashSet<String>()
+
+    /**
+     * `NEW`: The classes constructed in the method.
+     */
+    val classes: Collection<PsiClass>
+        get() {
+            if (compiledConstructions.isEmpty()) {
+                return constructedClasses
+            }
+            return compiledConstructions.mapNotNullTo(LinkedHashSet(constructedClasses)) { findClass(it) }
+        }
+
+    /**
+     * `NEW`: Find the expressions constructing the class with the given qualified name.
+     */
+    fun findConstructions(qualifiedName: String): List<PsiElement> {
+        constructions[qualifiedName]?.let { return it }
+        return if (qualifiedName in compiledConstructions) listOfNotNull(findClass(qualifiedName)) else emptyList()
+    }
+
+    private fun findClass(binaryName: String): PsiClass? {
+        return ClassUtil.findPsiClass(PsiManager.getInstance(project), binaryName, null, false,
+            GlobalSearchScope.allScope(project))
+    }
+
+    inner class MemberInjectionPoints<T : PsiMember> internal constructor(private val memberClass: Class<T>) {
+
+        // The sites are grouped by the name of the member, all other parts of the reference are only compared afterwards
+        private val sites = HashMap<String, MutableList<Site>>()
+        private val qualifiedMembers = LinkedHashSet<QualifiedMember<T>>()
+        private val compiledReferences = LinkedHashSet<MemberReference>()
+
+        val members: Collection<QualifiedMember<T>>
+            get() {
+                if (compiledReferences.isEmpty()) {
+                    return qualifiedMembers
+                }
+                return compiledReferences.mapNotNullTo(LinkedHashSet(qualifiedMembers)) { resolve(it) }
+            }
+
+        fun find(target: MemberReference): List<PsiElement> {
+            val sites = sites[target.name] ?: return emptyList()
+            return sites.mapNotNull {
+                if (target.match(it.reference)) it.source ?: resolve(it.reference)?.member else null
+            }
+        }
+
+        internal fun add(member: QualifiedMember<T>, reference: MemberReference, source: PsiElement) {
+            sites.getOrPut(reference.name) { ArrayList() }.add(Site(reference, source))
+            qualifiedMembers.add(member)
+        }
+
+        internal fun addCompiled(reference: MemberReference) {
+            sites.getOrPut(reference.name) { ArrayList() }.add(Site(reference, null))
+            compiledReferences.add(reference)
+        }
+
+        private fun resolve(reference: MemberReference): QualifiedMember<T>? {
+            val owner = findClass(reference.owner!!) ?: return null
+            val member = if (reference.descriptor!!.startsWith('(')) {
+                owner.findMethods(reference, checkBases = true).findAny().orElse(null)
+            } else {
+                owner.findField(reference, checkBases = true)
+            }
+
+            return if (memberClass.isInstance(member)) QualifiedMember(memberClass.cast(member), owner) else null
+        }
+    }
+
+    /**
+     * @param source The element in the target method, or `null` if the reference was read from a compiled method.
+     */
+    private class Site(val reference: MemberReference, val source: PsiElement?)
+
+    private fun readCompiled(method: PsiMethod): Boolean {
+        // Inner classes are stored in their own class files next to the class file of the outer class
+        val outerClassFile = targetClass.containingFile?.virtualFile ?: return false
+        val classFile = outerClassFile.parent?.findChild(targetClass.internalName.substringAfterLast('/') + ".class")
+            ?: return false
+
+        val instructions = MethodInstructionsCache.instance.getInstructions(classFile, method.internalName + method.descriptor)
+            ?: return false
+
+        instructions.methodCalls.forEach { methodCalls.addCompiled(it) }
+        instructions.constantStringMethodCalls.forEach { constantStringMethodCalls.addCompiled(it) }
+        instructions.fieldAccesses.forEach { fieldAccesses.addCompiled(it) }
+        compiledConstructions.addAll(instructions.constructions)
+        return true
+    }
+
+    private inner class Builder : JavaRecursiveElementWalkingVisitor() {
+
+        override fun visitMethodCallExpression(expression: PsiMethodCallExpression) {
+            val method = expression.resolveMethod()
+            if (method != null) {
+                val containingClass = method.containingClass
+                val referenceQualifier = QualifiedMember.resolveQualifier(expression.methodExpression)
+
+                // Normally, Java uses the type of the instance to qualify the method calls
+                // However, if the method is part of java.lang.Object (e.g. equals or toString)
+                // and no class in the hierarchy of the instance overrides the method, Java will
+                // insert the call using java.lang.Object as the owner
+                val qualifier = if (method.isConstructor || containingClass?.qualifiedName == CommonClassNames.JAVA_LANG_OBJECT)
+                    containingClass else referenceQualifier
+                addMethod(methodCalls, method, qualifier, expression)
+
+                if (isConstantStringMethodCall(expression)) {
+                    addMethod(constantStringMethodCalls, method, referenceQualifier, expression)
+                }
+            }
+
+            super.visitMethodCallExpression(expression)
+        }
+
+        override fun visitNewExpression(expression: PsiNewExpression) {
+            val constructor = expression.resolveConstructor()
+            if (constructor != null) {
+                addMethod(methodCalls, constructor, constructor.containingClass!!, expression)
+            }
+
+            val psiClass = expression.anonymousClass ?: expression.classReference?.resolve() as? PsiClass
+            val qualifiedName = psiClass?.qualifiedName
+            if (qualifiedName != null) {
+                constructions.getOrPut(qualifiedName) { ArrayList() }.add(expression)
+                constructedClasses.add(psiClass)
+            }
+
+            super.visitNewExpression(expression)
+        }
+
+        override fun visitForeachStatement(statement: PsiForeachStatement) {
+            // Enhanced for loops get compiled to a loop calling next on an Iterator
+            // Since these method calls are not available in the method source we need
+            // to generate 3 virtual method calls: the call to get the Iterator
+            // (Iterable.iterator()) and "Iterator.next()" and "Iterator.hasNext()"
+
+            val type = (statement.iteratedValue?.type as? PsiClassType)?.resolve()
+            if (type != null) {
+                // Find iterator() method
+                val method = type.findMethodsByName("iterator", true).firstOrNull { it.parameterList.parametersCount == 0 }
+                if (method != null) {
+                    addMethod(methodCalls, method, type, statement)
+                }
+            }
+
+            // Get Iterator class to resolve next and hasNext
+            val iteratorClass = JavaPsiFacade.getInstance(statement.project)
+                .findClass(CommonClassNames.JAVA_UTIL_ITERATOR, statement.resolveScope)
+
+            if (iteratorClass != null) {
+                val hasNext = iteratorClass.findMethodsByName("hasNext", false).firstOrNull { it.parameterList.parametersCount == 0 }
+                if (hasNext != null) {
+                    addMethod(methodCalls, hasNext, iteratorClass, statement)
+                }
+
+                val next = iteratorClass.findMethodsByName("next", false).firstOrNull { it.parameterList.parametersCount == 0 }
+                if (next != null) {
+                    addMethod(methodCalls, next, iteratorClass, statement)
+                }
+            }
+
+            super.visitForeachStatement(statement)
+        }
+
+        override fun visitReferenceExpression(expression: PsiReferenceExpression) {
+            if (expression !is PsiMethodReferenceExpression) {
+                val resolved = expression.resolve()
+                if (resolved is PsiField) {
+                    val qualifier = QualifiedMember.resolveQualifier(expression)
+                    fieldAccesses.add(QualifiedMember(resolved, qualifier),
+                        resolved.getQualifiedMemberReference(qualifier ?: targetClass), expression)
+                }
+            }
+
+            super.visitReferenceExpression(expression)
+        }
+
+        private fun addMethod(points: MemberInjectionPoints<PsiMethod>, method: PsiMethod, qualifier: PsiClass?, source: PsiElement) {
+            points.add(QualifiedMember(method, qualifier), method.getQualifiedMemberReference(qualifier ?: targetClass), source)
+        }
+
+        private fun isConstantStringMethodCall(expression: PsiMethodCallExpression): Boolean {
+            // Must return void
+            if (expression.type != PsiType.VOID) {
+                return false
+            }
+
+            val arguments = expression.argumentList
+            val argumentTypes = arguments.expressionTypes
+            if (argumentTypes.size != 1 || argumentTypes[0] != PsiType.getJavaLangString(expression.manager, expression.resolveScope)) {
+                // Must have one String parameter
+                return false
+            }
+
+            val expr = arguments.expressions[0]
+            // Expression must be constant, so either a literal or a constant field reference
+            return when (expr) {
+                is PsiLiteral -> true
+                is PsiReference -> (expr.resolve() as? PsiVariable)?.computeConstantValue() != null
+                else -> false
+            }
+        }
+    }
+
+    companion object {
+
+        /**
+         * Get the injection point table of the given target method, or `null` if the method has no body and its
+         * class file can't be read.
+         */
+        fun get(method: PsiMethod): InjectionPointTable? {
+            if (method.body == null && method !is PsiCompiledElement) {
+                return null
+            }
+
+            return CachedValuesManager.getCachedValue(method) {
+                val targetClass = method.containingClass
+                val table = targetClass?.let(::InjectionPointTable)
+                val body = method.body
+                val built = when {
+                    table == null -> false
+                    body != null -> {
+                        body.accept(table.Builder())
+                        true
+                    }
+                    else -> table.readCompiled(method)
+                }
+
+                // The resolved members only change if the target method or the structure of the classes changes
+                CachedValueProvider.Result.create(if (built) table else null, method.containingFile,
+                    PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT)
+            }
+        }
+    }
+}
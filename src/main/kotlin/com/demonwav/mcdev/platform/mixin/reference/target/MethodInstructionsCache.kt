@@ -0,0 +1,169 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin.reference.target
+
+import com.demonwav.mcdev.platform.mixin.util.MemberReference
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.vfs.VirtualFile
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.ClassVisitor
+import org.objectweb.asm.Handle
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+import java.io.IOException
+
+/**
+ * Application-wide cache of the injection points in the methods of compiled classes, read from the instructions in
+ * the class files with ASM. This is used for target methods without sources, so they don't need to be decompiled.
+ *
+ * Only the [MAX_CLASSES] most recently used classes are kept, stored by the path of the class file (the path of the jar
+ * and the entry in it).
+ */
+class MethodInstructionsCache {
+
+    private val classes = object : LinkedHashMap<String, ClassEntry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, ClassEntry>) = size > MAX_CLASSES
+    }
+
+    /**
+     * @param classFile The class file containing the method.
+     * @param method The name of the method followed by its descriptor, e.g. `getName()Ljava/lang/String;`.
+     * @return The injection points in the method, or `null` if the class doesn't contain the method or can't be read.
+     */
+    fun getInstructions(classFile: VirtualFile, method: String): MethodInstructions? {
+        val path = classFile.path
+        val stamp = classFile.modificationStamp
+        synchronized(classes) {
+            val entry = classes[path]
+            if (entry != null && entry.stamp == stamp) {
+                return entry.methods[method]
+            }
+        }
+
+        val methods = try {
+            read(classFile.contentsToByteArray())
+        } catch (e: IOException) {
+            return null
+        } catch (e: RuntimeException) {
+            // ASM doesn't validate the class file, invalid ones fail with an ArrayIndexOutOfBoundsException or an
+            // IllegalArgumentException. Remember them, so they aren't read again until they are changed
+            emptyMap<String, MethodInstructions>()
+        }
+
+        synchronized(classes) {
+            classes[path] = ClassEntry(stamp, methods)
+        }
+        return methods[method]
+    }
+
+    private fun read(bytes: ByteArray): Map<String, MethodInstructions> {
+        val methods = HashMap<String, MethodInstructions>()
+        ClassReader(bytes).accept(object : ClassVisitor(Opcodes.ASM5) {
+            override fun visitMethod(access: Int, name: String, desc: String, signature: String?,
+                                     exceptions: Array<out String>?): MethodVisitor? {
+                val instructions = MethodInstructions()
+                methods[name + desc] = instructions
+                return InstructionsVisitor(instructions)
+            }
+        }, ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
+        return methods
+    }
+
+    /**
+     * The injection points in a compiled method. The owners of the member references and the constructed classes
+     * use the binary name of the class, e.g. `net.minecraft.entity.Entity`.
+     */
+    class MethodInstructions {
+        val methodCalls = ArrayList<MemberReference>()
+        val constantStringMethodCalls = ArrayList<MemberReference>()
+        val fieldAccesses = ArrayList<MemberReference>()
+        val constructions = ArrayList<String>()
+    }
+
+    private class ClassEntry(val stamp: Long, val methods: Map<String, MethodInstructions>)
+
+    private class InstructionsVisitor(private val instructions: MethodInstructions) : MethodVisitor(Opcodes.ASM5) {
+
+        // INVOKE_STRING only matches method calls directly after loading the constant string
+        private var constantString = false
+
+        override fun visitLdcInsn(cst: Any?) {
+            constantString = cst is String
+        }
+
+        override fun visitMethodInsn(opcode: Int, owner: String, name: String, desc: String, itf: Boolean) {
+            val reference = MemberReference(name, desc, owner.replace('/', '.'))
+            instructions.methodCalls.add(reference)
+            if (constantString && desc == CONSTANT_STRING_METHOD_DESCRIPTOR) {
+                instructions.constantStringMethodCalls.add(reference)
+            }
+            constantString = false
+        }
+
+        override fun visitFieldInsn(opcode: Int, owner: String, name: String, desc: String) {
+            instructions.fieldAccesses.add(MemberReference(name, desc, owner.replace('/', '.')))
+            constantString = false
+        }
+
+        override fun visitTypeInsn(opcode: Int, type: String) {
+            if (opcode == Opcodes.NEW) {
+                instructions.constructions.add(type.replace('/', '.'))
+            }
+            constantString = false
+        }
+
+        override fun visitInsn(opcode: Int) {
+            constantString = false
+        }
+
+        override fun visitIntInsn(opcode: Int, operand: Int) {
+            constantString = false
+        }
+
+        override fun visitVarInsn(opcode: Int, `var`: Int) {
+            constantString = false
+        }
+
+        override fun visitInvokeDynamicInsn(name: String?, desc: String?, bsm: Handle?, vararg bsmArgs: Any?) {
+            constantString = false
+        }
+
+        override fun visitJumpInsn(opcode: Int, label: Label?) {
+            constantString = false
+        }
+
+        override fun visitIincInsn(`var`: Int, increment: Int) {
+            constantString = false
+        }
+
+        override fun visitTableSwitchInsn(min: Int, max: Int, dflt: Label?, vararg labels: Label?) {
+            constantString = false
+        }
+
+        override fun visitLookupSwitchInsn(dflt: Label?, keys: IntArray?, labels: Array<out Label>?) {
+            constantString = false
+        }
+
+        override fun visitMultiANewArrayInsn(desc: String?, dims: Int) {
+            constantString = false
+        }
+    }
+
+    companion object {
+        private const val MAX_CLASSES = 64
+        private const val CONSTANT_STRING_METHOD_DESCRIPTOR = "(Ljava/lang/String;)V"
+
+        @JvmStatic
+        val instance: MethodInstructionsCache
+            get() = ServiceManager.getService(MethodInstructionsCache::class.java)
+    }
+}
@@ -25,7 +25,6 @@ import com.demonwav.mcdev.util.mapToArray
 import com.demonwav.mcdev.util.shortName
 import com.intellij.codeInsight.completion.JavaLookupElementBuilder
 import com.intellij.codeInsight.lookup.LookupElementBuilder
-import com.intellij.psi.JavaRecursiveElementWalkingVisitor
 import com.intellij.psi.PsiAnnotation
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiClassType
@@ -72,25 +71,22 @@ object TargetReference : PolyReferenceResolver(), MixinReference {
     }
 
     override fun isUnresolved(context: PsiElement): Boolean {
-        val result = resolve(context, checkOnly = true) ?: return false
+        val result = resolve(context) ?: return false
         return result.isEmpty()
     }
 
     override fun resolveReference(context: PsiElement): Array<ResolveResult> {
-        val result = resolve(context, checkOnly = false) ?: return ResolveResult.EMPTY_ARRAY
+        val result = resolve(context) ?: return ResolveResult.EMPTY_ARRAY
         return result.mapToArray(::PsiElementResolveResult)
     }
 
-    private fun resolve(context: PsiElement, checkOnly: Boolean): List<PsiElement>? {
+    private fun resolve(context: PsiElement): List<PsiElement>? {
         val at = context.annotationFromValue!! // @At
         val handler = getHandler(at) ?: return null
 
         val targetMethod = getTargetMethod(at) ?: return null
-        val codeBlock = targetMethod.body ?: return null
-
-        val visitor = handler.createFindUsagesVisitor(context, targetMethod.containingClass!!, checkOnly) ?: return null
-        codeBlock.accept(visitor)
-        return visitor.result
+        val table = InjectionPointTable.get(targetMethod) ?: return null
+        return handler.find(context, table)
     }
 
     override fun collectVariants(context: PsiElement): Array<Any> {
@@ -98,25 +94,26 @@ object TargetReference : PolyReferenceResolver(), MixinReference {
         val handler = getHandler(at) ?: return ArrayUtil.EMPTY_OBJECT_ARRAY
 
         val targetMethod = getTargetMethod(at) ?: return ArrayUtil.EMPTY_OBJECT_ARRAY
-        val codeBlock = targetMethod.body ?: return ArrayUtil.EMPTY_OBJECT_ARRAY
+        val table = InjectionPointTable.get(targetMethod) ?: return ArrayUtil.EMPTY_OBJECT_ARRAY
 
-        return collectUsages(context, handler, codeBlock, targetMethod.containingClass!!)
+        return collectUsages(context, handler, table, targetMethod.containingClass!!)
     }
 
-    private fun <T> collectUsages(context: PsiElement, handler: Handler<T>, codeBlock: PsiElement, targetClass: PsiClass): Array<Any> {
+    private fun <T> collectUsages(context: PsiElement, handler: Handler<T>, table: InjectionPointTable, targetClass: PsiClass): Array<Any> {
         // Collect all possible targets
-        val visitor = handler.createCollectUsagesVisitor()
-        codeBlock.accept(visitor)
-        return visitor.result.mapToArray { handler.createLookup(targetClass, it).completeToLiteral(context) }
+        return handler.collect(table).mapToArray { handler.createLookup(targetClass, it).completeToLiteral(context) }
     }
 
     abstract class Handler<T> {
 
         open fun usesMemberReference() = false
 
-        abstract fun createFindUsagesVisitor(context: PsiElement, targetClass: PsiClass,
-                                                      checkOnly: Boolean): CollectVisitor<out PsiElement>?
-        abstract fun createCollectUsagesVisitor(): CollectVisitor<T>
+        /**
+         * Find the injection points in the [table] of the target method matching the target in the [context],
+         * or `null` if the target is invalid.
+         */
+        abstract fun find(context: PsiElement, table: InjectionPointTable): List<PsiElement>?
+        abstract fun collect(table: InjectionPointTable): Collection<T>
 
         abstract fun createLookup(targetClass: PsiClass, element: T): LookupElementBuilder
     }
@@ -178,15 +175,3 @@ data class QualifiedMember<T : PsiMember>(val member: T, val qualifier: PsiClass
         }
     }
 }
-
-abstract class CollectVisitor<T>(private val checkOnly: Boolean) : JavaRecursiveElementWalkingVisitor() {
-
-    val result = ArrayList<T>()
-
-    protected fun addResult(element: T) {
-        this.result.add(element)
-        if (checkOnly) {
-            stopWalking()
-        }
-    }
-}
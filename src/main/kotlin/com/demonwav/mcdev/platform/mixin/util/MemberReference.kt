@@ -44,16 +44,24 @@ data class MemberReference(val name: String, val descriptor: String? = null,
         return this.owner == null || this.owner == psiClass.fullQualifiedName
     }
 
+    // The name is compared first because most candidates don't match it. The owner is compared
+    // last because building the name of an inner class is the only part that isn't cached.
     @Contract(pure = true)
     fun match(method: PsiMethod, qualifier: PsiClass): Boolean {
-        return this.name == method.internalName && matchOwner(qualifier)
-                && (this.descriptor == null || this.descriptor == method.descriptor)
+        return this.name == method.internalName && (this.descriptor == null || this.descriptor == method.descriptor)
+                && matchOwner(qualifier)
     }
 
     @Contract(pure = true)
     fun match(field: PsiField, qualifier: PsiClass): Boolean {
-        return this.name == field.name && matchOwner(qualifier)
-                && (this.descriptor == null || this.descriptor == field.descriptor)
+        return this.name == field.name && (this.descriptor == null || this.descriptor == field.descriptor)
+                && matchOwner(qualifier)
+    }
+
+    @Contract(pure = true)
+    fun match(reference: MemberReference): Boolean {
+        return this.name == reference.name && (this.descriptor == null || this.descriptor == reference.descriptor)
+                && (this.owner == null || this.owner == reference.owner)
     }
 
     @Contract(pure = true)
@@ -15,9 +15,13 @@ import com.intellij.psi.PsiArrayType
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiField
+import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiMethod
 import com.intellij.psi.PsiPrimitiveType
 import com.intellij.psi.PsiType
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
 import com.intellij.psi.util.TypeConversionUtil
 import org.jetbrains.annotations.Contract
 
@@ -65,12 +69,36 @@ fun PsiType.appendDescriptor(builder: StringBuilder): StringBuilder {
 // Class
 
 @get:Contract(pure = true)
-val PsiClass.internalName
-    get() = outerQualifiedName?.replace('.', '/') ?: buildInternalName(StringBuilder()).toString()
+val PsiClass.internalName: String
+    get() {
+        if (!isPhysical) {
+            return computeInternalName()
+        }
+
+        return CachedValuesManager.getCachedValue(this) {
+            // Anonymous and local classes are numbered in the order they appear in the code blocks of the outer
+            // class, so their names can also change without a change of the Java structure
+            CachedValueProvider.Result.create(computeInternalName(), structureModificationTracker)
+        }
+    }
 
-fun PsiClass.appendInternalName(builder: StringBuilder): StringBuilder {
-    return outerQualifiedName?.let { builder.append(it.replace('.', '/')) } ?: buildInternalName(builder)
-}
+/**
+ * Whether this class or one of its outer classes is an anonymous or local class.
+ */
+private val PsiClass.isInCodeBlock
+    get() = generateSequence(this) { it.containingClass }.last().parent !is PsiFile
+
+/**
+ * The tracker for changes of this class and its members. The Java structure doesn't include changes in code blocks,
+ * so changes of anonymous and local classes and their members are only tracked by the general modification count.
+ */
+private val PsiClass?.structureModificationTracker
+    get() = if (this?.isInCodeBlock == true) PsiModificationTracker.MODIFICATION_COUNT
+        else PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT
+
+private fun PsiClass.computeInternalName() = outerQualifiedName?.replace('.', '/') ?: buildInternalName(StringBuilder()).toString()
+
+fun PsiClass.appendInternalName(builder: StringBuilder): StringBuilder = builder.append(internalName)
 
 private fun PsiClass.buildInternalName(builder: StringBuilder): StringBuilder {
     buildInnerName(builder, { it.outerQualifiedName?.replace('.', '/') })
@@ -98,9 +126,21 @@ fun PsiClass.findMethodsByInternalName(internalName: String, checkBases: Boolean
 val PsiMethod.internalName: String
     get() = if (isConstructor) INTERNAL_CONSTRUCTOR_NAME else name
 
+// The descriptors are cached because they are compared for every candidate when matching member references
 @get:Contract(pure = true)
 val PsiMethod.descriptor: String
-    get() = appendDescriptor(StringBuilder()).toString()
+    get() {
+        if (!isPhysical) {
+            return appendDescriptor(StringBuilder()).toString()
+        }
+
+        return CachedValuesManager.getCachedValue(this) {
+            // Types of local classes can only be used inside their code block, so if the descriptor refers to one,
+            // this is a member of a class in a code block as well
+            CachedValueProvider.Result.create(appendDescriptor(StringBuilder()).toString(),
+                containingClass.structureModificationTracker)
+        }
+    }
 
 fun PsiMethod.appendDescriptor(builder: StringBuilder): StringBuilder {
     builder.append('(')
@@ -114,6 +154,16 @@ fun PsiMethod.appendDescriptor(builder: StringBuilder): StringBuilder {
 // Field
 @get:Contract(pure = true)
 val PsiField.descriptor: String
-    get() = appendDescriptor(StringBuilder()).toString()
+    get() {
+        if (!isPhysical) {
+            return appendDescriptor(StringBuilder()).toString()
+        }
+
+        return CachedValuesManager.getCachedValue(this) {
+            // See PsiMethod.descriptor
+            CachedValueProvider.Result.create(appendDescriptor(StringBuilder()).toString(),
+                containingClass.structureModificationTracker)
+        }
+    }
 
 fun PsiField.appendDescriptor(builder: StringBuilder): StringBuilder = type.appendDescriptor(builder)
@@ -0,0 +1,46 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import junit.framework.TestCase
+
+class AtNormalizerTest : TestCase() {
+
+    private fun normalize(vararg lines: String) = AtNormalizer.normalize(lines.joinToString("\n", postfix = "\n"))
+
+    fun testWidestAccess() = assertEquals("public a.b c\n",
+        normalize("protected a.b c", "public a.b c", "private a.b c"))
+    fun testRemoveFinal() = assertEquals("public-f a b\n", normalize("public a b", "private-f a b"))
+    fun testPackageSeparators() = assertEquals("protected a/b c\n", normalize("private a/b c", "protected a.b c"))
+    fun testDifferentMembers() = assertEquals("public a b\npublic a c\n", normalize("public a c", "public a b"))
+
+    // The entry of a class comes before the entries of its members
+    fun testSort() = assertEquals("public a\npublic a c\npublic b\n", normalize("public b", "public a c", "public a"))
+    fun testLineSeparators() = assertEquals("public a\npublic b\n", AtNormalizer.normalize("public b\r\npublic a\r\n"))
+
+    fun testComments() = assertEquals("public a\n# comment for b\npublic b # end b\npublic c\n",
+        normalize("public c", "# comment for b", "public b # end b", "public a"))
+    fun testMergeComments() = assertEquals("# first\n# second\npublic a b # x; y\npublic c\n",
+        normalize("public c", "# first", "public a b # x", "# second", "protected a b # y"))
+    fun testHeader() = assertEquals("# Header\n\npublic a\npublic b\n", normalize("# Header", "", "public b", "public a"))
+    // Comments directly above the first entry are moved with it
+    fun testFirstEntryComment() = assertEquals("# Header\n\npublic a\n# comment for b\npublic b\n",
+        normalize("# Header", "", "# comment for b", "public b", "public a"))
+    fun testFirstEntryCommentWithoutHeader() = assertEquals("public a\n# comment for b\npublic b\n",
+        normalize("# comment for b", "public b", "public a"))
+    fun testTrailingComments() = assertEquals("public a\n# trailing\n", normalize("public a", "# trailing"))
+
+    fun testInvalidLines() = assertEquals("public a\npublic b\nfoo bar\npublic a b c d\n",
+        normalize("foo bar", "public b", "public a b c d", "public a"))
+
+    fun testKey() = assertEquals("a.b c", AtNormalizer.getKey("  public-f a/b c # comment"))
+    fun testInvalidKey() = assertNull(AtNormalizer.getKey("# comment"))
+}
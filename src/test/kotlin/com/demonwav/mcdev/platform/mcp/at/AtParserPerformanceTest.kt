@@ -0,0 +1,130 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.at
+
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtEntry
+import com.demonwav.mcdev.platform.mcp.at.gen.psi.AtTypes
+import com.intellij.lexer.Lexer
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.editor.ex.EditorEx
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFileFactory
+import com.intellij.psi.TokenType
+import com.intellij.psi.impl.DebugUtil
+import com.intellij.psi.tree.IElementType
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.testFramework.PlatformTestUtil
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase
+import org.junit.Assert
+
+/**
+ * Benchmarks the lexer and parser on an access transformer file about the size of Forge's `forge_at.cfg` files, and
+ * checks that the incremental re-lexing and reparsing after edits give the same result as processing the whole file.
+ */
+class AtParserPerformanceTest : LightCodeInsightFixtureTestCase() {
+
+    private val text = createFile(10000)
+
+    fun testLexer() {
+        PlatformTestUtil.startPerformanceTest("Lexing AT file", 200) {
+            val tokens = lex(AtLexerAdapter(), text, 0)
+            Assert.assertEquals(10000, tokens.count { it.type == AtTypes.KEYWORD_ELEMENT })
+            Assert.assertFalse(tokens.any { it.type == TokenType.BAD_CHARACTER })
+        }.assertTiming()
+    }
+
+    fun testLexerRestartsAtLineStart() {
+        val full = lex(AtLexerAdapter(), text, 0)
+
+        // The highlighter only restarts the lexer at tokens in the initial state, which must be at the start of a line
+        val restarts = full.filter { it.state == 0 }
+        Assert.assertEquals(10000, restarts.count { it.type == AtTypes.KEYWORD_ELEMENT })
+        Assert.assertTrue(restarts.all { it.start == 0 || text[it.start - 1] == '\n' || it.type == AtTypes.CRLF })
+
+        for (token in restarts.filterIndexed { i, _ -> i % 500 == 0 }) {
+            Assert.assertEquals(full.subList(full.indexOf(token), full.size), lex(AtLexerAdapter(), text, token.start))
+        }
+    }
+
+    fun testParser() {
+        PlatformTestUtil.startPerformanceTest("Parsing AT file", 1000) {
+            val file = PsiFileFactory.getInstance(project).createFileFromText("test_at.cfg", AtLanguage.getInstance(), text)
+            Assert.assertEquals(10000, PsiTreeUtil.getChildrenOfTypeAsList(file, AtEntry::class.java).size)
+            Assert.assertFalse(PsiTreeUtil.hasErrorElements(file))
+        }.assertTiming()
+    }
+
+    fun testIncrementalRelex() {
+        myFixture.configureByText(AtFileType.getInstance(), text)
+        val document = myFixture.editor.document
+        val documentManager = PsiDocumentManager.getInstance(project)
+
+        // The edits may be repeated if the timing is missed, the checks below are valid for any number of them
+        PlatformTestUtil.startPerformanceTest("Reparsing AT file after editing a few lines", 2000) {
+            WriteCommandAction.runWriteCommandAction(project) {
+                // Change the name of a member in the middle of the file
+                document.insertString(document.getLineEndOffset(document.lineCount / 2) - 1, "a")
+                // Turn an entry into a comment
+                document.insertString(document.getLineStartOffset(100), "# ")
+                // Split a line and join two others
+                document.insertString(document.getLineStartOffset(200) + 7, "\n")
+                document.deleteString(document.getLineEndOffset(300), document.getLineEndOffset(300) + 1)
+                // Remove a whole line
+                document.deleteString(document.getLineStartOffset(400), document.getLineStartOffset(401))
+            }
+            documentManager.commitDocument(document)
+        }.assertTiming()
+
+        // The highlighter only re-lexes the changed lines, the result must be the same as lexing the whole file again
+        val editedText = document.immutableCharSequence
+        val incremental = ArrayList<Pair<Int, IElementType>>()
+        val iterator = (myFixture.editor as EditorEx).highlighter.createIterator(0)
+        while (!iterator.atEnd()) {
+            incremental.add(iterator.start to iterator.tokenType)
+            iterator.advance()
+        }
+        Assert.assertEquals(lex(AtLexerAdapter(), editedText, 0).map { it.start to it.type }, incremental)
+
+        // The same applies to the incremental reparse of the PSI
+        val reparsed = PsiFileFactory.getInstance(project)
+            .createFileFromText("test_at.cfg", AtLanguage.getInstance(), editedText)
+        Assert.assertEquals(DebugUtil.psiToString(reparsed, false), DebugUtil.psiToString(myFixture.file, false))
+    }
+
+    private fun lex(lexer: Lexer, text: CharSequence, start: Int): List<Token> {
+        val result = ArrayList<Token>()
+        lexer.start(text, start, text.length, 0)
+        while (lexer.tokenType != null) {
+            result.add(Token(lexer.tokenStart, lexer.tokenType!!, lexer.state))
+            lexer.advance()
+        }
+        return result
+    }
+
+    private data class Token(val start: Int, val type: IElementType, val state: Int)
+
+    private companion object {
+        fun createFile(lines: Int): String {
+            val builder = StringBuilder("# Test access transformers\n")
+            for (i in 0 until lines) {
+                val className = "net.minecraft.entity.Entity${i / 10}"
+                when (i % 4) {
+                    0 -> builder.append("public $className")
+                    1 -> builder.append("public-f $className field_${i}_a")
+                    2 -> builder.append("protected $className func_${i}_a(Lnet/minecraft/world/World;IZ[J)V # Comment")
+                    else -> builder.append("public $className <init>(Ljava/lang/String;)V")
+                }
+                builder.append('\n')
+            }
+            return builder.toString()
+        }
+    }
+}
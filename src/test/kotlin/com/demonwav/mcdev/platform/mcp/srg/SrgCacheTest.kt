@@ -0,0 +1,75 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg
+
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase
+import java.io.File
+
+class SrgCacheTest : LightCodeInsightFixtureTestCase() {
+
+    private lateinit var tempDir: File
+    private lateinit var srgFile: File
+    private lateinit var snapshot: File
+
+    override fun setUp() {
+        super.setUp()
+        this.tempDir = FileUtil.createTempDirectory("srg", null)
+        this.srgFile = File(tempDir, "mcp-srg.srg")
+        this.snapshot = File(tempDir, "snapshot.bin")
+
+        srgFile.writeText("CL: a net/minecraft/entity/Entity\nFD: a/b net/minecraft/entity/Entity/field_70163_u\n")
+    }
+
+    override fun tearDown() {
+        try {
+            FileUtil.delete(tempDir)
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    private fun load() = SrgCache.load(srgFile.toPath(), snapshot.toPath())
+    private fun loadSnapshot() = SrgCache.loadSnapshot(srgFile.toPath(), snapshot.toPath())
+
+    fun testMissingSnapshot() = assertNull(loadSnapshot())
+
+    fun testWriteSnapshot() {
+        assertEquals("net/minecraft/entity/Entity", load().mapClass("a", false))
+
+        val table = loadSnapshot()
+        assertNotNull(table)
+        assertEquals("net/minecraft/entity/Entity", table!!.mapClass("a", false))
+        assertEquals("a/b", table.mapField("net/minecraft/entity/Entity/field_70163_u", true))
+    }
+
+    fun testCorruptedChecksum() {
+        load()
+
+        // Change the last byte of the stored table, so it doesn't match the checksum anymore
+        val bytes = snapshot.readBytes()
+        bytes[bytes.size - 1] = (bytes[bytes.size - 1] + 1).toByte()
+        snapshot.writeBytes(bytes)
+        assertNull(loadSnapshot())
+
+        // The SRG file is parsed again and the snapshot is replaced
+        assertEquals("net/minecraft/entity/Entity", load().mapClass("a", false))
+        assertNotNull(loadSnapshot())
+    }
+
+    fun testOutdatedSnapshot() {
+        load()
+
+        srgFile.writeText("CL: a net/minecraft/world/World\n")
+        assertNull(loadSnapshot())
+        assertEquals("net/minecraft/world/World", load().mapClass("a", false))
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg
+
+import junit.framework.TestCase
+
+class SrgRemapperTest : TestCase() {
+
+    private lateinit var srgToMcp: SrgRemapper
+    private lateinit var mcpToNotch: SrgRemapper
+    private lateinit var notchToMcp: SrgRemapper
+
+    override fun setUp() {
+        super.setUp()
+
+        this.srgToMcp = SrgRemapper.Builder(true).apply {
+            acceptField("net/minecraft/entity/Entity/field_70165_t", "net/minecraft/entity/Entity/posX")
+            acceptName("func_1_a", "tick")
+            // Longer name starting with another name
+            acceptName("func_1_ab", "update")
+            // Longer name ending with another name
+            acceptName("x_func_1_a", "other")
+            // Different mappings for the same name
+            acceptName("func_2_b", "foo")
+            acceptName("func_2_b", "bar")
+        }.build()
+
+        this.mcpToNotch = SrgRemapper.Builder(false).apply {
+            acceptClass("net/minecraft/entity/Entity", "a")
+            acceptField("net/minecraft/entity/Entity/field_70165_t", "a/b")
+        }.build()
+
+        this.notchToMcp = SrgRemapper.Builder(false).apply {
+            acceptClass("a", "net/minecraft/entity/Entity")
+            acceptClass("bib", "net/minecraft/client/Minecraft")
+            acceptField("a/b", "net/minecraft/entity/Entity/posX")
+        }.build()
+    }
+
+    fun testMember() = assertEquals("net/minecraft/entity/Entity/posX",
+        srgToMcp.remap("net/minecraft/entity/Entity/field_70165_t"))
+    fun testMemberWithDots() = assertEquals("net.minecraft.entity.Entity.posX",
+        srgToMcp.remap("net.minecraft.entity.Entity.field_70165_t"))
+    fun testSimpleName() = assertEquals("this.posX = 0;", srgToMcp.remap("this.field_70165_t = 0;"))
+    fun testAmbiguousName() = assertEquals("func_2_b()", srgToMcp.remap("func_2_b()"))
+
+    fun testLongestPrefixMatch() = assertEquals("update(); tick();", srgToMcp.remap("func_1_ab(); func_1_a();"))
+    fun testSuffixMatch() = assertEquals("other tick", srgToMcp.remap("x_func_1_a func_1_a"))
+    fun testIdentifierBoundary() = assertEquals("myfunc_1_a func_1_a2", srgToMcp.remap("myfunc_1_a func_1_a2"))
+
+    fun testWraparound() {
+        // Many more matches than fit into the buffer of undecided matches
+        val text = "func_1_a ".repeat(100) + "func_1_ab"
+        assertEquals("tick ".repeat(100) + "update", srgToMcp.remap(text))
+    }
+
+    // The member and its owner class start at the same index, the longer match is used
+    fun testOverlappingClassAndMember() = assertEquals("a.b", mcpToNotch.remap("net.minecraft.entity.Entity.field_70165_t"))
+    fun testClassOfUnmappedMember() = assertEquals("a.posY", mcpToNotch.remap("net.minecraft.entity.Entity.posY"))
+    fun testClassInPackage() = assertEquals("com.net.minecraft.entity.Entity",
+        mcpToNotch.remap("com.net.minecraft.entity.Entity"))
+    fun testNoSimpleNames() = assertEquals("field_70165_t", mcpToNotch.remap("field_70165_t"))
+
+    fun testDescriptor() = assertEquals("(I[La;)La;",
+        mcpToNotch.remap("(I[Lnet/minecraft/entity/Entity;)Lnet/minecraft/entity/Entity;"))
+    fun testDescriptorInIdentifier() = assertEquals("XLnet/minecraft/entity/Entity;",
+        mcpToNotch.remap("XLnet/minecraft/entity/Entity;"))
+
+    // Obfuscated class names are only remapped in descriptors or if they are followed by a member
+    fun testObfuscatedClassInCode() = assertEquals("for (int a = 0; a < bib; a++) // a b",
+        notchToMcp.remap("for (int a = 0; a < bib; a++) // a b"))
+    fun testObfuscatedClassInDescriptor() = assertEquals("(Lnet/minecraft/entity/Entity;)Lnet/minecraft/client/Minecraft;",
+        notchToMcp.remap("(La;)Lbib;"))
+    fun testObfuscatedClassWithMember() = assertEquals("net.minecraft.client.Minecraft.c", notchToMcp.remap("bib.c"))
+    fun testObfuscatedMember() = assertEquals("net/minecraft/entity/Entity/posX", notchToMcp.remap("a/b"))
+
+    fun testAutomatonOverlappingMatches() {
+        val automaton = NameAutomaton.Builder().run {
+            add("he")
+            add("she")
+            add("hers")
+            add("a/b")
+            build()
+        }
+
+        val matches = ArrayList<Triple<Int, Int, Int>>()
+        automaton.findAll("ushers a.b", object : NameAutomaton.MatchHandler {
+            override fun accept(pattern: Int, start: Int, end: Int) {
+                matches.add(Triple(pattern, start, end))
+            }
+
+            override fun advance(index: Int) {}
+        })
+
+        // Reported in the order of their end index, package separators are normalized
+        assertEquals(listOf(Triple(1, 1, 4), Triple(0, 2, 4), Triple(2, 2, 6), Triple(3, 7, 10)), matches)
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg
+
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase
+import java.io.File
+
+class SrgSearchIndexTest : LightCodeInsightFixtureTestCase() {
+
+    private lateinit var tempDir: File
+    private lateinit var index: SrgSearchIndex
+
+    override fun setUp() {
+        super.setUp()
+        this.tempDir = FileUtil.createTempDirectory("srg", null)
+
+        val mcpSrg = File(tempDir, "mcp-srg.srg")
+        mcpSrg.writeText(MCP_SRG)
+        val notchSrg = File(tempDir, "notch-srg.srg")
+        notchSrg.writeText(NOTCH_SRG)
+
+        this.index = SrgMap(setOf(mcpSrg.path, notchSrg.path)).searchIndex
+    }
+
+    override fun tearDown() {
+        try {
+            FileUtil.delete(tempDir)
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    private fun search(query: String, limit: Int = 10) = index.search(query, limit).map { it.mcpName }
+
+    fun testSize() = assertEquals(7, index.size())
+
+    // Queries with less than three characters only match the start of names
+    fun testShortQuery() = assertEquals(listOf("posX", "posY", "position"), search("po"))
+    fun testShortQueryStartOnly() = assertEquals(listOf("onUpdate"), search("on"))
+    fun testSingleCharacterQuery() = assertEquals(listOf("posX"), search("s"))
+
+    // Exact matches first, then prefixes, then other matches, each ordered by length
+    fun testRanking() = assertEquals(listOf("update", "updateAll", "onUpdate"), search("update"))
+    fun testRankingByLength() = assertEquals(listOf("update", "onUpdate", "updateAll"), search("ate"))
+    fun testLimit() = assertEquals(listOf("posX", "posY"), search("pos", 2))
+
+    fun testSrgName() = assertEquals(listOf("onUpdate"), search("func_70071"))
+    fun testNotchName() = assertEquals(listOf("onUpdate"), search("m"))
+    fun testIgnoreCase() = assertEquals(listOf("posX"), search("POSX"))
+    fun testNoMatch() = assertEmpty(search("xyz"))
+    fun testEmptyQuery() = assertEmpty(search(" "))
+
+    fun testMember() {
+        val member = index.search("onUpdate", 1).single()
+        assertEquals("net/minecraft/entity/Entity", member.owner)
+        assertEquals("func_70071_h_", member.srgName)
+        assertEquals("m", member.notchName)
+        assertEquals("net/minecraft/entity/Entity/onUpdate()V", member.mcpString)
+    }
+
+    companion object {
+        private val MCP_SRG = """
+            FD: net/minecraft/entity/Entity/isPoisoned net/minecraft/entity/Entity/field_1_a
+            FD: net/minecraft/entity/Entity/posX net/minecraft/entity/Entity/field_70165_t
+            FD: net/minecraft/entity/Entity/posY net/minecraft/entity/Entity/field_70163_u
+            FD: net/minecraft/entity/Entity/position net/minecraft/entity/Entity/field_2_b
+            MD: net/minecraft/entity/Entity/onUpdate ()V net/minecraft/entity/Entity/func_70071_h_ ()V
+            MD: net/minecraft/entity/Entity/update ()V net/minecraft/entity/Entity/func_3_c ()V
+            MD: net/minecraft/entity/Entity/updateAll ()V net/minecraft/entity/Entity/func_4_d ()V
+        """.trimIndent()
+
+        private val NOTCH_SRG = """
+            FD: a/s net/minecraft/entity/Entity/field_70165_t
+            MD: a/m ()V net/minecraft/entity/Entity/func_70071_h_ ()V
+        """.trimIndent()
+    }
+}
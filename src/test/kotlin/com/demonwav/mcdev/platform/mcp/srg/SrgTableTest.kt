@@ -0,0 +1,138 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mcp.srg
+
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+import java.nio.ByteBuffer
+
+class SrgTableTest : LightCodeInsightFixtureTestCase() {
+
+    private lateinit var tempDir: File
+    private lateinit var parsed: SrgTable
+    private lateinit var table: SrgTable
+
+    override fun setUp() {
+        super.setUp()
+        this.tempDir = FileUtil.createTempDirectory("srg", null)
+
+        val srgFile = File(tempDir, "mcp-srg.srg")
+        srgFile.writeText(SRG)
+        this.parsed = SrgTable.read(srgFile.toPath())
+
+        // All lookups are done on the table read back from its binary form
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { parsed.write(it) }
+        this.table = SrgTable.read(ByteBuffer.wrap(bytes.toByteArray()))
+    }
+
+    override fun tearDown() {
+        try {
+            FileUtil.delete(tempDir)
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    fun testMapClass() = assertEquals("net/minecraft/entity/Entity", table.mapClass("a", false))
+    fun testMapClassInverse() = assertEquals("a", table.mapClass("net/minecraft/entity/Entity", true))
+    fun testMapClassMissing() = assertNull(table.mapClass("d", false))
+    // "a" is part of the string pool, but it is not the name of a deobfuscated class
+    fun testMapClassWrongDirection() = assertNull(table.mapClass("a", true))
+
+    fun testContainsClassWithDots() = assertTrue(table.containsClass("(net.minecraft.entity.Entity)", 1, 28, true))
+    fun testContainsClassWrongDirection() = assertFalse(table.containsClass("net.minecraft.entity.Entity", 0, 27, false))
+
+    fun testMapClassesPrefix() = assertEquals(
+        listOf("net/minecraft/entity/Entity" to "a", "net/minecraft/entity/EntityLiving" to "b"),
+        table.mapClasses("net/minecraft/entity/", true).toList())
+    fun testMapClassesMissingPrefix() = assertEmpty(table.mapClasses("net/minecraft/block/", true).keys)
+    fun testMapClassesAll() = assertEquals(parsed.mapClasses("", false), table.mapClasses("", false))
+
+    fun testMapField() = assertEquals("net/minecraft/entity/Entity/field_70163_u", table.mapField("a/b", false))
+    fun testMapFieldInverse() = assertEquals("c/a", table.mapField("net/minecraft/world/World/field_72995_K", true))
+    fun testMapFieldMissing() = assertNull(table.mapField("a/c", false))
+    // Both the owner and the name are part of the string pool, but there is no such field
+    fun testMapFieldMissingEntry() = assertNull(table.mapField("c/b", false))
+
+    fun testMapMethod() = assertEquals("net/minecraft/entity/Entity/func_70029_a(Lnet/minecraft/world/World;)V",
+        table.mapMethod("a/a(Lc;)V", false))
+    fun testMapMethodInverse() = assertEquals("b/a()V", table.mapMethod("net/minecraft/entity/EntityLiving/func_70636_d()V", true))
+    fun testMapMethodMissingDescriptor() = assertNull(table.mapMethod("a/b()V", false))
+
+    fun testMapFields() = assertEquals(
+        listOf("a/a" to "net/minecraft/entity/Entity/field_70165_t", "a/b" to "net/minecraft/entity/Entity/field_70163_u"),
+        table.mapFields("a", false).toList())
+    fun testMapFieldsInverse() = assertEquals(mapOf("net/minecraft/world/World/field_72995_K" to "c/a"),
+        table.mapFields("net/minecraft/world/World", true))
+    fun testMapFieldsWithoutFields() = assertEmpty(table.mapFields("b", false).keys)
+
+    fun testMapMethods() = assertEquals(
+        listOf("a/a(Lc;)V" to "net/minecraft/entity/Entity/func_70029_a(Lnet/minecraft/world/World;)V",
+            "a/b()Z" to "net/minecraft/entity/Entity/func_70089_S()Z"),
+        table.mapMethods("a", false).toList())
+    fun testMapMethodsInverse() = assertEquals(mapOf("net/minecraft/entity/EntityLiving/func_70636_d()V" to "b/a()V"),
+        table.mapMethods("net/minecraft/entity/EntityLiving", true))
+
+    fun testStringPoolRegion() {
+        val builder = StringPool.Builder()
+        listOf("net/minecraft", "net", "a").forEach { builder.intern(it) }
+        val pool = builder.build()
+
+        assertEquals("net", pool.get(pool.indexOf("<net/minecraft>", 1, 4)))
+        assertEquals("net/minecraft", pool.get(pool.indexOf("<net/minecraft>", 1, 14)))
+        assertEquals(-1, pool.indexOf("<net/minecraft>", 1, 8))
+    }
+
+    fun testStringPoolEmptyPrefix() {
+        val builder = StringPool.Builder()
+        listOf("a", "c").forEach { builder.intern(it) }
+        val range = builder.build().findPrefix("b")
+        assertEquals(range[0], range[1])
+    }
+
+    fun testMemberTableInvalidId() {
+        val pool = StringPool.Builder()
+        val builder = MemberTable.Builder(1)
+        builder.add(intArrayOf(pool.intern("a")), intArrayOf(pool.intern("b")))
+        pool.build()
+
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { builder.build(pool).write(it) }
+
+        try {
+            // The table refers to two strings, but the pool only contains one
+            MemberTable.read(ByteBuffer.wrap(bytes.toByteArray()), 1, 1)
+            fail("Expected an IOException for an invalid string id")
+        } catch (e: IOException) {
+            // Expected
+        }
+    }
+
+    companion object {
+        private val SRG = """
+            PK: . net/minecraft/src
+            CL: a net/minecraft/entity/Entity
+            CL: b net/minecraft/entity/EntityLiving
+            CL: c net/minecraft/world/World
+            FD: a/a net/minecraft/entity/Entity/field_70165_t
+            FD: a/b net/minecraft/entity/Entity/field_70163_u
+            FD: c/a net/minecraft/world/World/field_72995_K
+            MD: a/a (Lc;)V net/minecraft/entity/Entity/func_70029_a (Lnet/minecraft/world/World;)V
+            MD: a/b ()Z net/minecraft/entity/Entity/func_70089_S ()Z
+            MD: b/a ()V net/minecraft/entity/EntityLiving/func_70636_d ()V
+        """.trimIndent()
+    }
+}
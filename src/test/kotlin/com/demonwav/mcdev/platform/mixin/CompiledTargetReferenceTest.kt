@@ -0,0 +1,179 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin
+
+import com.demonwav.mcdev.MinecraftCodeInsightFixtureTestCase
+import com.demonwav.mcdev.platform.mixin.reference.target.MethodInstructionsCache
+import com.intellij.openapi.roots.LibraryOrderEntry
+import com.intellij.openapi.roots.ModuleRootModificationUtil
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.LocalFileSystem
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiField
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiPolyVariantReference
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Opcodes
+import java.io.File
+
+/**
+ * Resolves `@At` targets in a target class which is only available as class file, without any sources.
+ */
+class CompiledTargetReferenceTest : MinecraftCodeInsightFixtureTestCase() {
+
+    private lateinit var libraryDir: File
+
+    override fun setUp() {
+        super.setUp()
+        this.libraryDir = FileUtil.createTempDirectory("mixin", null)
+
+        val classFile = File(libraryDir, "test/CompiledTarget.class")
+        classFile.parentFile.mkdirs()
+        classFile.writeBytes(createTargetClass())
+
+        val root = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(libraryDir)!!
+        ModuleRootModificationUtil.addModuleLibrary(myModule, LIBRARY, listOf(root.url), emptyList())
+    }
+
+    override fun tearDown() {
+        try {
+            ModuleRootModificationUtil.updateModel(myModule) { model ->
+                model.orderEntries.filter { it is LibraryOrderEntry && it.libraryName == LIBRARY }
+                    .forEach { model.removeOrderEntry(it) }
+            }
+            FileUtil.delete(libraryDir)
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    private fun resolve(injectionPoint: String, target: String): List<PsiElement> {
+        myFixture.configureByText("CompiledTargetMixin.java", """
+            package test;
+
+            @org.spongepowered.asm.mixin.Mixin(CompiledTarget.class)
+            public class CompiledTargetMixin {
+
+                @org.spongepowered.asm.mixin.injection.Inject(method = "run",
+                    at = @org.spongepowered.asm.mixin.injection.At(value = "$injectionPoint", target = "<caret>$target"))
+                private void onRun() {
+                }
+            }
+        """.trimIndent())
+
+        val reference = myFixture.getReferenceAtCaretPositionWithAssertion() as PsiPolyVariantReference
+        return reference.multiResolve(false).mapNotNull { it.element }
+    }
+
+    fun testInvoke() {
+        val method = resolve("INVOKE", "Ltest/CompiledTarget;log(Ljava/lang/String;)V").single() as PsiMethod
+        assertEquals("log", method.name)
+        assertEquals("test.CompiledTarget", method.containingClass?.qualifiedName)
+    }
+
+    fun testInvokeString() {
+        val method = resolve("INVOKE_STRING", "Ltest/CompiledTarget;log(Ljava/lang/String;)V").single() as PsiMethod
+        assertEquals("log", method.name)
+    }
+
+    // The call to info isn't directly after loading a constant string
+    fun testInvokeStringWithoutConstant() = assertEmpty(resolve("INVOKE_STRING", "Ltest/CompiledTarget;info(Ljava/lang/String;)V"))
+
+    fun testField() {
+        val field = resolve("FIELD", "Ltest/CompiledTarget;counter:I").single() as PsiField
+        assertEquals("counter", field.name)
+        assertEquals("test.CompiledTarget", field.containingClass?.qualifiedName)
+    }
+
+    fun testNew() {
+        val psiClass = resolve("NEW", "test/CompiledTarget").single() as PsiClass
+        assertEquals("test.CompiledTarget", psiClass.qualifiedName)
+    }
+
+    fun testMissingTarget() = assertEmpty(resolve("FIELD", "Ltest/CompiledTarget;missing:I"))
+
+    fun testInvalidClassFile() {
+        val file = File(libraryDir, "test/Invalid.class")
+        // The header of a class file, without the constant pool
+        file.writeBytes(byteArrayOf(0xCA.toByte(), 0xFE.toByte(), 0xBA.toByte(), 0xBE.toByte(), 0, 0, 0, 52))
+
+        val classFile = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(file)!!
+        assertNull(MethodInstructionsCache().getInstructions(classFile, "run()V"))
+    }
+
+    private companion object {
+        const val LIBRARY = "compiled-target"
+
+        /**
+         * Create the class file of the following class:
+         *
+         * ```
+         * public class CompiledTarget {
+         *     public static int counter;
+         *
+         *     public static void log(String message) {}
+         *     public static void info(String message) {}
+         *
+         *     public void run() {
+         *         log("run");
+         *         info(String.valueOf(counter));
+         *         new CompiledTarget();
+         *     }
+         * }
+         * ```
+         */
+        fun createTargetClass(): ByteArray {
+            val writer = ClassWriter(ClassWriter.COMPUTE_MAXS)
+            writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC or Opcodes.ACC_SUPER, "test/CompiledTarget", null,
+                "java/lang/Object", null)
+            writer.visitField(Opcodes.ACC_PUBLIC or Opcodes.ACC_STATIC, "counter", "I", null, null).visitEnd()
+
+            writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null).apply {
+                visitCode()
+                visitVarInsn(Opcodes.ALOAD, 0)
+                visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false)
+                visitInsn(Opcodes.RETURN)
+                visitMaxs(0, 0)
+                visitEnd()
+            }
+
+            for (name in listOf("log", "info")) {
+                writer.visitMethod(Opcodes.ACC_PUBLIC or Opcodes.ACC_STATIC, name, "(Ljava/lang/String;)V", null, null)
+                    .apply {
+                        visitCode()
+                        visitInsn(Opcodes.RETURN)
+                        visitMaxs(0, 0)
+                        visitEnd()
+                    }
+            }
+
+            writer.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null).apply {
+                visitCode()
+                visitLdcInsn("run")
+                visitMethodInsn(Opcodes.INVOKESTATIC, "test/CompiledTarget", "log", "(Ljava/lang/String;)V", false)
+                visitFieldInsn(Opcodes.GETSTATIC, "test/CompiledTarget", "counter", "I")
+                visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/String", "valueOf", "(I)Ljava/lang/String;", false)
+                visitMethodInsn(Opcodes.INVOKESTATIC, "test/CompiledTarget", "info", "(Ljava/lang/String;)V", false)
+                visitTypeInsn(Opcodes.NEW, "test/CompiledTarget")
+                visitInsn(Opcodes.DUP)
+                visitMethodInsn(Opcodes.INVOKESPECIAL, "test/CompiledTarget", "<init>", "()V", false)
+                visitInsn(Opcodes.POP)
+                visitInsn(Opcodes.RETURN)
+                visitMaxs(0, 0)
+                visitEnd()
+            }
+
+            writer.visitEnd()
+            return writer.toByteArray()
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Minecraft Dev for IntelliJ
+ *
+ * https://minecraftdev.org
+ *
+ * Copyright (c) 2017 minecraft-dev
+ *
+ * MIT License
+ */
+
+package com.demonwav.mcdev.platform.mixin
+
+import com.demonwav.mcdev.MinecraftCodeInsightFixtureTestCase
+import com.demonwav.mcdev.platform.mixin.util.MixinConfigIndex
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.search.GlobalSearchScope
+
+class MixinConfigIndexTest : MinecraftCodeInsightFixtureTestCase() {
+
+    private lateinit var config: VirtualFile
+    private lateinit var refmap: VirtualFile
+
+    override fun setUp() {
+        super.setUp()
+
+        this.config = myFixture.addFileToProject("mixins.example.json", """
+            {
+                "required": true,
+                "package": "com.example.mixin",
+                "refmap": "mixins.example.refmap.json",
+                "mixins": ["MixinEntity", 42, {"name": "MixinObject"}, null],
+                "client": ["client.MixinRenderer"],
+                "server": ["server.MixinServer"]
+            }
+        """.trimIndent()).virtualFile
+
+        // Refmaps are named like the configurations, and may contain "package" as part of a class name
+        this.refmap = myFixture.addFileToProject("mixins.example.refmap.json", """
+            {
+                "mappings": {
+                    "com/example/mixin/package/MixinEntity": {
+                        "update": "func_70071_h_()V"
+                    }
+                }
+            }
+        """.trimIndent()).virtualFile
+    }
+
+    private fun findConfigs(qualifiedName: String) =
+        MixinConfigIndex.findConfigs(qualifiedName, GlobalSearchScope.projectScope(project))
+
+    fun testMixins() = assertEquals(listOf(config), findConfigs("com.example.mixin.MixinEntity").toList())
+    fun testClient() = assertEquals(listOf(config), findConfigs("com.example.mixin.client.MixinRenderer").toList())
+    fun testServer() = assertEquals(listOf(config), findConfigs("com.example.mixin.server.MixinServer").toList())
+
+    fun testWithoutPackage() = assertEmpty(findConfigs("MixinEntity"))
+    fun testUnknownMixin() = assertEmpty(findConfigs("com.example.mixin.MixinWorld"))
+    fun testEmptyName() = assertEmpty(findConfigs(""))
+
+    fun testNonStringEntries() {
+        assertEmpty(findConfigs("com.example.mixin.42"))
+        assertEmpty(findConfigs("com.example.mixin.MixinObject"))
+        assertEmpty(findConfigs("com.example.mixin.null"))
+    }
+
+    fun testHasConfigs() = assertTrue(MixinConfigIndex.hasConfigs(GlobalSearchScope.fileScope(project, config)))
+    fun testRefmap() = assertFalse(MixinConfigIndex.hasConfigs(GlobalSearchScope.fileScope(project, refmap)))
+
+    fun testSingularName() {
+        val file = myFixture.addFileToProject("example.mixin.json", """{"package": "com.example.mixin", "mixins": ["MixinWorld"]}""")
+        assertTrue(MixinConfigIndex.isMixinConfig(file.virtualFile))
+        assertEquals(listOf(file.virtualFile), findConfigs("com.example.mixin.MixinWorld").toList())
+    }
+
+    fun testNotConfig() {
+        val file = myFixture.addFileToProject("example.json", """{"package": "com.example.mixin", "mixins": ["MixinWorld"]}""")
+        assertFalse(MixinConfigIndex.isMixinConfig(file.virtualFile))
+        assertEmpty(findConfigs("com.example.mixin.MixinWorld"))
+    }
+}